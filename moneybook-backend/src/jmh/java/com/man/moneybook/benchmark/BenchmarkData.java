@@ -0,0 +1,62 @@
+package com.man.moneybook.benchmark;
+
+import com.man.moneybook.config.JwtConfig;
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.enums.TransactionType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deterministic synthetic data shared by the benchmark suites.
+ */
+final class BenchmarkData {
+
+    static final String JWT_SECRET =
+            "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private static final String[] CATEGORIES =
+            {"Salary", "Food", "Rent", "Travel", "Bills", "Shopping"};
+
+    private static final String[] COUNTERPARTIES =
+            {"Ravi", "Anita", "Suresh", "Meera", "Arjun"};
+
+    private BenchmarkData() {}
+
+    static List<Transaction> transactions(int count) {
+
+        Random random = new Random(42);
+        TransactionType[] types = TransactionType.values();
+        LocalDate today = LocalDate.of(2025, 1, 1);
+
+        List<Transaction> txs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TransactionType type = types[random.nextInt(types.length)];
+            txs.add(Transaction.builder()
+                    .id(String.format("%024x", i))
+                    .userId("65f0c0ffee0000000000beef")
+                    .type(type)
+                    .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .amount(BigDecimal.valueOf(random.nextInt(5_000_000), 2))
+                    .description("Synthetic transaction " + i)
+                    .counterparty(type == TransactionType.INCOME || type == TransactionType.EXPENSE
+                            ? null
+                            : COUNTERPARTIES[random.nextInt(COUNTERPARTIES.length)])
+                    .transactionDate(today.minusDays(i % 3650))
+                    .build());
+        }
+        return txs;
+    }
+
+    static JwtConfig jwtConfig() {
+        JwtConfig config = new JwtConfig();
+        ReflectionTestUtils.setField(config, "secret", JWT_SECRET);
+        ReflectionTestUtils.setField(config, "expiration", TimeUnit.HOURS.toMillis(1));
+        return config;
+    }
+}
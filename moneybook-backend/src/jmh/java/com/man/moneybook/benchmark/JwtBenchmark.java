@@ -0,0 +1,49 @@
+package com.man.moneybook.benchmark;
+
+import com.man.moneybook.security.JwtTokenProvider;
+import com.man.moneybook.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification cost in {@link JwtTokenProvider}, with
+ * the verified-token cache disabled.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtTokenProvider provider;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setup() {
+        provider = new JwtTokenProvider(BenchmarkData.jwtConfig(), 0);
+
+        UserPrincipal principal = new UserPrincipal(
+                "65f0c0ffee0000000000beef", "bench@moneybook.dev", "n/a", "Bench", "User");
+        authentication = new UsernamePasswordAuthenticationToken(
+                principal, null, principal.getAuthorities());
+
+        token = provider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String generate() {
+        return provider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public Claims parse() {
+        return provider.parseClaims(token).orElseThrow();
+    }
+}
@@ -0,0 +1,112 @@
+package com.man.moneybook.benchmark;
+
+import com.man.moneybook.config.JwtConfig;
+import com.man.moneybook.security.JwtAuthenticationFilter;
+import com.man.moneybook.security.JwtTokenProvider;
+import com.man.moneybook.security.PrincipalCache;
+import com.man.moneybook.security.UserDetailsServiceImpl;
+import com.man.moneybook.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT handling in the authentication filter: the old validate-then-parse
+ * path against single-pass parsing with and without the verified-token
+ * cache.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private SecretKey key;
+    private String token;
+    private String header;
+
+    private JwtTokenProvider uncachedProvider;
+    private JwtTokenProvider cachedProvider;
+
+    private JwtAuthenticationFilter uncachedFilter;
+    private JwtAuthenticationFilter cachedFilter;
+
+    @Setup
+    public void setup() {
+        JwtConfig config = BenchmarkData.jwtConfig();
+
+        key = Keys.hmacShaKeyFor(BenchmarkData.JWT_SECRET.getBytes());
+        uncachedProvider = new JwtTokenProvider(config, 0);
+        cachedProvider = new JwtTokenProvider(config, 10_000);
+
+        UserPrincipal principal = new UserPrincipal(
+                "65f0c0ffee0000000000beef", "bench@moneybook.dev", "n/a", "Bench", "User");
+
+        token = cachedProvider.generateToken(new UsernamePasswordAuthenticationToken(
+                principal, null, principal.getAuthorities()));
+        header = "Bearer " + token;
+
+        // warm principal cache: the filter never reaches the repository
+        PrincipalCache principals = new PrincipalCache(10_000, Duration.ofMinutes(5));
+        principals.get(principal.getEmail(), email -> principal);
+
+        UserDetailsServiceImpl unusedLoader = new UserDetailsServiceImpl(null, principals);
+        uncachedFilter = new JwtAuthenticationFilter(uncachedProvider, unusedLoader, principals, new SimpleMeterRegistry());
+        cachedFilter = new JwtAuthenticationFilter(cachedProvider, unusedLoader, principals, new SimpleMeterRegistry());
+    }
+
+    // Previous behaviour: validateToken() then getUsername(), each
+    // building a fresh parser and verifying the signature again.
+    @Benchmark
+    public String legacyValidateThenParse() {
+        Jwts.parser().verifyWith(key).build().parse(token);
+        return Jwts.parser().verifyWith(key).build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+    }
+
+    @Benchmark
+    public Claims singleParse() {
+        return uncachedProvider.parseClaims(token).orElseThrow();
+    }
+
+    @Benchmark
+    public Claims cachedParse() {
+        return cachedProvider.parseClaims(token).orElseThrow();
+    }
+
+    @Benchmark
+    public void filterSingleParse(Blackhole bh) throws Exception {
+        runFilter(uncachedFilter, bh);
+    }
+
+    @Benchmark
+    public void filterCachedToken(Blackhole bh) throws Exception {
+        runFilter(cachedFilter, bh);
+    }
+
+    private void runFilter(JwtAuthenticationFilter filter, Blackhole bh) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/transactions");
+        request.addHeader("Authorization", header);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        bh.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+}
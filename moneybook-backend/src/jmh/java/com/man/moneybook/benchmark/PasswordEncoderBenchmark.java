@@ -0,0 +1,40 @@
+package com.man.moneybook.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Argon2 cost per login/registration with the encoder settings used by
+ * SecurityConfig.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private Argon2PasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        encoder = Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+        hash = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return encoder.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,48 @@
+package com.man.moneybook.benchmark;
+
+import com.man.moneybook.security.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of a rate limit check: a hot key (one busy user)
+ * and a spread of 10k users, with limits high enough that every call
+ * is allowed and the CAS always succeeds.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private RateLimiter limiter;
+    private String[] keys;
+
+    @Setup
+    public void setup() {
+        limiter = new RateLimiter(true, 1_000_000, 1e9, 1_000_000, 1e9,
+                Duration.ofMinutes(10), 100_000, new SimpleMeterRegistry());
+        keys = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            keys[i] = "user-" + i;
+        }
+    }
+
+    @Benchmark
+    public long hotKey() {
+        return limiter.tryAcquire(RateLimiter.Group.API, "user-0");
+    }
+
+    @Benchmark
+    public long manyKeys() {
+        return limiter.tryAcquire(RateLimiter.Group.API, keys[ThreadLocalRandom.current().nextInt(USERS)]);
+    }
+}
@@ -0,0 +1,78 @@
+package com.man.moneybook.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.man.moneybook.dto.transaction.TransactionResponseDto;
+import com.man.moneybook.entity.Transaction;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Jackson serialization of transaction lists as returned by the API,
+ * using the same defaults Spring Boot applies to its ObjectMapper.
+ * Compares the raw entity with the lean response DTO, with and without
+ * the gzip pass the server applies, and prints the payload sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"50", "1000", "10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Transaction> txs;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        txs = BenchmarkData.transactions(size);
+
+        System.out.printf("%n[size=%d] entity json %d B, gzip %d B | dto json %d B, gzip %d B%n",
+                size,
+                serializeEntities().length, serializeEntitiesGzip().length,
+                serializeDtos().length, serializeDtosGzip().length);
+    }
+
+    @Benchmark
+    public byte[] serializeEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(txs);
+    }
+
+    @Benchmark
+    public byte[] serializeDtos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(toDtos());
+    }
+
+    @Benchmark
+    public byte[] serializeEntitiesGzip() throws IOException {
+        return gzip(serializeEntities());
+    }
+
+    @Benchmark
+    public byte[] serializeDtosGzip() throws IOException {
+        return gzip(serializeDtos());
+    }
+
+    private List<TransactionResponseDto> toDtos() {
+        return txs.stream().map(TransactionResponseDto::from).toList();
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+}
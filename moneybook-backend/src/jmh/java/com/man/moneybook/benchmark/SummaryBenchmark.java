@@ -0,0 +1,83 @@
+package com.man.moneybook.benchmark;
+
+import com.man.moneybook.dto.dashboard.DashboardSummary;
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.enums.TransactionType;
+import com.man.moneybook.util.MoneyAccumulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-heap dashboard reduction over a user's transactions. Compare
+ * gc.alloc.rate.norm from the GC profiler across the three variants.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SummaryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private List<Transaction> txs;
+
+    @Setup
+    public void setup() {
+        txs = BenchmarkData.transactions(size);
+    }
+
+    // The original five-pass stream computation from summary()
+    @Benchmark
+    public DashboardSummary fivePassStreams() {
+
+        BigDecimal balance = txs.stream()
+                .map(tx -> switch (tx.getType()) {
+                    case INCOME, LOAN_TAKEN, RECOVERY -> tx.getAmount();
+                    case EXPENSE, LOAN_GIVEN, SETTLEMENT -> tx.getAmount().negate();
+                })
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal loanTaken = sumOf(TransactionType.LOAN_TAKEN)
+                .subtract(sumOf(TransactionType.SETTLEMENT));
+
+        BigDecimal loanGiven = sumOf(TransactionType.LOAN_GIVEN)
+                .subtract(sumOf(TransactionType.RECOVERY));
+
+        return new DashboardSummary(balance, loanTaken, loanGiven);
+    }
+
+    @Benchmark
+    public DashboardSummary singlePassPerType() {
+
+        Map<TransactionType, BigDecimal> totals = new EnumMap<>(TransactionType.class);
+        for (Transaction tx : txs) {
+            totals.merge(tx.getType(), tx.getAmount(), BigDecimal::add);
+        }
+        return DashboardSummary.fromTotals(totals);
+    }
+
+    @Benchmark
+    public DashboardSummary scaledLongAccumulator() {
+
+        MoneyAccumulator totals = new MoneyAccumulator();
+        for (Transaction tx : txs) {
+            totals.add(tx.getType(), tx.getAmount());
+        }
+        return totals.toSummary();
+    }
+
+    private BigDecimal sumOf(TransactionType type) {
+        return txs.stream()
+                .filter(t -> t.getType() == type)
+                .map(Transaction::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,373 @@
+package com.man.moneybook.benchmark;
+
+import com.man.moneybook.MoneybookApplication;
+import com.man.moneybook.dto.dashboard.DashboardSummary;
+import com.man.moneybook.entity.UserBalance;
+import com.man.moneybook.enums.TransactionType;
+import com.man.moneybook.security.JwtTokenProvider;
+import com.man.moneybook.security.PrincipalCache;
+import com.man.moneybook.security.UserPrincipal;
+import com.man.moneybook.service.BalanceLedgerService;
+import com.man.moneybook.service.DataVersionService;
+import com.man.moneybook.service.ReactiveDashboardService;
+import com.man.moneybook.service.ReactiveDataVersionService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load test of GET /transactions/summary on the real web
+ * stacks: servlet on Tomcat's platform-thread pool, servlet with virtual
+ * threads (Java 21+ only), and the "reactive" profile on Netty. MongoDB
+ * is replaced by stand-ins that take a fixed round-trip latency for the
+ * data-version lookup and the ledger read: blocking sleeps on the servlet
+ * stack, non-blocking delays on the reactive one. No database is needed.
+ * Heap in use and live threads are sampled during the measured window.
+ * <p>
+ * mvn -Pbenchmarks -DskipTests test-compile exec:exec@load-test
+ * <br>
+ * Tunables: -Dload.concurrency, -Dload.seconds, -Dload.mongo-latency-ms,
+ * -Dload.modes=platform,virtual,reactive
+ */
+public final class ThreadModelLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 1000);
+    private static final long SECONDS = Long.getLong("load.seconds", 20);
+    private static final long WARMUP_SECONDS = Long.getLong("load.warmup-seconds", 5);
+    private static final long MONGO_LATENCY_MS = Long.getLong("load.mongo-latency-ms", 20);
+    private static final List<String> MODES =
+            List.of(System.getProperty("load.modes", "platform,virtual,reactive").split(","));
+
+    private ThreadModelLoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+
+        List<Map<String, Object>> results = new ArrayList<>();
+
+        if (MODES.contains("platform")) {
+            results.add(run("platform-threads", false, false));
+        }
+
+        if (MODES.contains("virtual")) {
+            if (Runtime.version().feature() >= 21) {
+                results.add(run("virtual-threads", true, false));
+            } else {
+                System.out.println("Skipping virtual-threads: needs Java 21+, running on "
+                        + Runtime.version());
+            }
+        }
+
+        if (MODES.contains("reactive")) {
+            results.add(run("reactive", false, true));
+        }
+
+        System.out.printf("%n%-18s %12s %10s %10s %10s %8s %10s %8s%n",
+                "mode", "req/s", "p50 ms", "p99 ms", "max ms", "errors", "heap MB", "threads");
+        for (Map<String, Object> r : results) {
+            System.out.printf(Locale.ROOT, "%-18s %12.0f %10.1f %10.1f %10.1f %8d %10.0f %8d%n",
+                    r.get("mode"), r.get("throughput"), r.get("p50Ms"),
+                    r.get("p99Ms"), r.get("maxMs"), r.get("errors"),
+                    r.get("peakHeapMb"), r.get("peakThreads"));
+        }
+
+        writeJson(Path.of("target", "load-test-result.json"), results);
+    }
+
+    private static Map<String, Object> run(String mode, boolean virtualThreads, boolean reactive)
+            throws Exception {
+
+        // system properties outrank application.properties
+        if (reactive) {
+            System.setProperty("spring.profiles.active", "reactive");
+        } else {
+            System.clearProperty("spring.profiles.active");
+        }
+        System.setProperty("server.port", "0");
+        System.setProperty("spring.threads.virtual.enabled", String.valueOf(virtualThreads));
+        System.setProperty("spring.data.mongodb.uri", "mongodb://127.0.0.1:1/stand-in");
+        System.setProperty("jwt.secret", BenchmarkData.JWT_SECRET);
+        System.setProperty("app.cors.allowed-origins", "http://localhost");
+        System.setProperty("app.mongo.indexes.create", "false");
+        System.setProperty("app.mongo.indexes.verify", "false");
+        System.setProperty("app.ledger.reconcile.enabled", "false");
+        System.setProperty("management.health.mongo.enabled", "false");
+        System.setProperty("logging.level.root", "WARN");
+
+        try (ConfigurableApplicationContext ctx =
+                     new SpringApplicationBuilder(MoneybookApplication.class)
+                             .initializers(c -> {
+                                 GenericApplicationContext context = (GenericApplicationContext) c;
+                                 context.registerBean(StandInLedger.class,
+                                         StandInLedger::new, bd -> bd.setPrimary(true));
+                                 context.registerBean(StandInDataVersions.class,
+                                         StandInDataVersions::new, bd -> bd.setPrimary(true));
+                                 context.registerBean(StandInReactiveDashboard.class,
+                                         StandInReactiveDashboard::new, bd -> bd.setPrimary(true));
+                                 context.registerBean(StandInReactiveDataVersions.class,
+                                         StandInReactiveDataVersions::new, bd -> bd.setPrimary(true));
+                             })
+                             .run()) {
+
+            UserPrincipal principal = new UserPrincipal(
+                    "65f0c0ffee0000000000beef", "load@moneybook.dev", "n/a", "Load", "Test");
+            ctx.getBean(PrincipalCache.class).get(principal.getEmail(), email -> principal);
+
+            String token = ctx.getBean(JwtTokenProvider.class).generateToken(
+                    new UsernamePasswordAuthenticationToken(
+                            principal, null, principal.getAuthorities()));
+
+            int port = Integer.parseInt(
+                    ctx.getEnvironment().getRequiredProperty("local.server.port"));
+
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port + "/transactions/summary"))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build();
+
+            System.out.printf("%s: %d clients, %ds (+%ds warmup), %dms stand-in latency%n",
+                    mode, CONCURRENCY, SECONDS, WARMUP_SECONDS, MONGO_LATENCY_MS);
+
+            return drive(mode, request);
+        }
+    }
+
+    private static Map<String, Object> drive(String mode, HttpRequest request)
+            throws InterruptedException {
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long deadline = measureFrom + TimeUnit.SECONDS.toNanos(SECONDS);
+
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(CONCURRENCY);
+
+        System.gc();
+        ResourceSampler sampler = new ResourceSampler(measureFrom);
+        sampler.start();
+
+        for (int i = 0; i < CONCURRENCY; i++) {
+            fire(client, request, measureFrom, deadline, latencies, errors, done);
+        }
+        done.await();
+        sampler.interrupt();
+        sampler.join();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("mode", mode);
+        result.put("concurrency", CONCURRENCY);
+        result.put("mongoLatencyMs", MONGO_LATENCY_MS);
+        result.put("requests", sorted.size());
+        result.put("throughput", sorted.size() / (double) SECONDS);
+        result.put("p50Ms", percentile(sorted, 0.50));
+        result.put("p99Ms", percentile(sorted, 0.99));
+        result.put("maxMs", percentile(sorted, 1.0));
+        result.put("errors", errors.get());
+        result.put("peakHeapMb", sampler.peakHeapBytes / (1024.0 * 1024.0));
+        result.put("peakThreads", sampler.peakThreads);
+        return result;
+    }
+
+    private static void fire(HttpClient client, HttpRequest request,
+                             long measureFrom, long deadline,
+                             List<Long> latencies, AtomicLong errors,
+                             CountDownLatch done) {
+
+        long sent = System.nanoTime();
+        if (sent >= deadline) {
+            done.countDown();
+            return;
+        }
+
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    if (sent >= measureFrom) {
+                        if (failure != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        } else {
+                            latencies.add(System.nanoTime() - sent);
+                        }
+                    }
+                    fire(client, request, measureFrom, deadline, latencies, errors, done);
+                });
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(p * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1_000_000.0;
+    }
+
+    private static void writeJson(Path file, List<Map<String, Object>> results) throws IOException {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            Map<String, Object> r = results.get(i);
+            json.append(String.format(Locale.ROOT,
+                    "  {\"mode\": \"%s\", \"concurrency\": %d, \"mongoLatencyMs\": %d, "
+                            + "\"requests\": %d, \"throughput\": %.1f, \"p50Ms\": %.2f, "
+                            + "\"p99Ms\": %.2f, \"maxMs\": %.2f, \"errors\": %d, "
+                            + "\"peakHeapMb\": %.1f, \"peakThreads\": %d}%s%n",
+                    r.get("mode"), r.get("concurrency"), r.get("mongoLatencyMs"),
+                    r.get("requests"), r.get("throughput"), r.get("p50Ms"),
+                    r.get("p99Ms"), r.get("maxMs"), r.get("errors"),
+                    r.get("peakHeapMb"), r.get("peakThreads"),
+                    i < results.size() - 1 ? "," : ""));
+        }
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, json.append("]\n").toString());
+        System.out.println("Results written to " + file.toAbsolutePath());
+    }
+
+    /**
+     * Ledger that blocks for one simulated Atlas round-trip per read,
+     * standing in for the blocking Mongo driver.
+     */
+    static final class StandInLedger implements BalanceLedgerService {
+
+        private final UserBalance balance = UserBalance.of(
+                "stand-in", Map.of(TransactionType.INCOME, BigDecimal.valueOf(1000)));
+
+        @Override
+        public void beginWrite(String userId) {
+        }
+
+        @Override
+        public void endWrite(String userId) {
+        }
+
+        @Override
+        public boolean hasWritesInFlight(List<String> userIds) {
+            return false;
+        }
+
+        @Override
+        public void applyDelta(String userId, TransactionType type, BigDecimal delta) {
+        }
+
+        @Override
+        public UserBalance getBalance(String userId) {
+            try {
+                Thread.sleep(MONGO_LATENCY_MS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return balance;
+        }
+
+        @Override
+        public UserBalance rebuild(String userId) {
+            return getBalance(userId);
+        }
+
+        @Override
+        public int reconcileAll() {
+            return 0;
+        }
+    }
+
+    /**
+     * Stand-in for the per-request data-version lookup, one blocking
+     * round-trip like the sync driver.
+     */
+    static final class StandInDataVersions implements DataVersionService {
+
+        @Override
+        public String etag(String userId, String variant) {
+            try {
+                Thread.sleep(MONGO_LATENCY_MS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return "\"stand-in-1\"";
+        }
+
+        @Override
+        public void bump(String userId) {
+        }
+    }
+
+    // Non-blocking stand-ins: the latency is a timer, no thread waits on it
+    static final class StandInReactiveDashboard implements ReactiveDashboardService {
+
+        private final DashboardSummary summary = DashboardSummary.fromTotals(
+                Map.of(TransactionType.INCOME, BigDecimal.valueOf(1000)));
+
+        @Override
+        public Mono<DashboardSummary> getSummary(String userId) {
+            return Mono.delay(Duration.ofMillis(MONGO_LATENCY_MS)).thenReturn(summary);
+        }
+    }
+
+    static final class StandInReactiveDataVersions implements ReactiveDataVersionService {
+
+        @Override
+        public Mono<String> etag(String userId, String variant) {
+            return Mono.delay(Duration.ofMillis(MONGO_LATENCY_MS)).thenReturn("\"stand-in-1\"");
+        }
+    }
+
+    // Samples heap in use and live threads once the measured window opens
+    private static final class ResourceSampler extends Thread {
+
+        private final long measureFrom;
+        private volatile long peakHeapBytes;
+        private volatile int peakThreads;
+
+        private ResourceSampler(long measureFrom) {
+            super("load-test-sampler");
+            this.measureFrom = measureFrom;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            try {
+                while (!isInterrupted()) {
+                    if (System.nanoTime() >= measureFrom) {
+                        peakHeapBytes = Math.max(peakHeapBytes, memory.getHeapMemoryUsage().getUsed());
+                        peakThreads = Math.max(peakThreads, threads.getThreadCount());
+                    }
+                    Thread.sleep(100);
+                }
+            } catch (InterruptedException ex) {
+                // done
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.man.moneybook.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection pool sizing for the blocking driver. With virtual threads
+ * the pool, not Tomcat's thread count, bounds concurrent Mongo work, so
+ * its size and wait time are tuned per profile via {@code app.mongo.pool.*}.
+ */
+@Configuration
+public class MongoClientConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer(
+            @Value("${app.mongo.pool.max-size:100}") int maxSize,
+            @Value("${app.mongo.pool.min-size:0}") int minSize,
+            @Value("${app.mongo.pool.max-connecting:2}") int maxConnecting,
+            @Value("${app.mongo.pool.max-wait:2m}") Duration maxWait
+    ) {
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(maxSize)
+                .minSize(minSize)
+                .maxConnecting(maxConnecting)
+                .maxWaitTime(maxWait.toMillis(), TimeUnit.MILLISECONDS));
+    }
+}
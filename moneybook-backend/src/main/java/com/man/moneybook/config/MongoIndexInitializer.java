@@ -0,0 +1,133 @@
+package com.man.moneybook.config;
+
+import com.man.moneybook.entity.CounterpartyLedger;
+import com.man.moneybook.entity.IdempotencyRecord;
+import com.man.moneybook.entity.MonthlyRollup;
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates and verifies the indexes declared on the mapped documents
+ * before the web server starts taking requests. Both steps are
+ * switchable per profile through {@code app.mongo.indexes.*}.
+ */
+@Component
+public class MongoIndexInitializer implements InitializingBean {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    static final List<Class<?>> INDEXED_DOCUMENTS =
+            List.of(Transaction.class, User.class, MonthlyRollup.class, CounterpartyLedger.class,
+                    IdempotencyRecord.class);
+
+    // Superseded by the live_* partial indexes. Dropped only once every
+    // declared index on the type was created, so reads never lose cover.
+    static final Map<Class<?>, List<String>> RETIRED_INDEXES =
+            Map.of(Transaction.class, List.of("user_date_id", "user_type", "user_counterparty"));
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.mongo.indexes.create:true}")
+    private boolean create;
+
+    @Value("${app.mongo.indexes.verify:true}")
+    private boolean verify;
+
+    public MongoIndexInitializer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+
+        if (!create && !verify) {
+            return;
+        }
+
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(
+                        mongoTemplate.getConverter().getMappingContext());
+
+        List<String> missing = new ArrayList<>();
+
+        for (Class<?> type : INDEXED_DOCUMENTS) {
+
+            IndexOperations indexOps = mongoTemplate.indexOps(type);
+
+            List<IndexDefinition> declared = new ArrayList<>();
+            resolver.resolveIndexFor(type).forEach(declared::add);
+
+            if (create) {
+                boolean created = true;
+                for (IndexDefinition index : declared) {
+                    try {
+                        indexOps.ensureIndex(index);
+                    } catch (RuntimeException ex) {
+                        created = false;
+                        log.error("Could not create index {} on {}",
+                                index.getIndexOptions().get("name"), type.getSimpleName(), ex);
+                    }
+                }
+                if (created) {
+                    dropRetired(type, indexOps);
+                }
+            }
+
+            if (verify) {
+                Set<String> existing = indexOps.getIndexInfo().stream()
+                        .map(IndexInfo::getName)
+                        .collect(Collectors.toSet());
+
+                declared.stream()
+                        .map(index -> String.valueOf(index.getIndexOptions().get("name")))
+                        .filter(name -> !existing.contains(name))
+                        .map(name -> type.getSimpleName() + "." + name)
+                        .forEach(missing::add);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing MongoDB indexes: " + missing);
+        }
+
+        log.info("MongoDB indexes {} for {}",
+                create ? "ensured" : "verified",
+                INDEXED_DOCUMENTS.stream().map(Class::getSimpleName).toList());
+    }
+
+    private static void dropRetired(Class<?> type, IndexOperations indexOps) {
+
+        List<String> retired = RETIRED_INDEXES.getOrDefault(type, List.of());
+        if (retired.isEmpty()) {
+            return;
+        }
+
+        Set<String> existing = indexOps.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet());
+
+        for (String name : retired) {
+            if (existing.contains(name)) {
+                indexOps.dropIndex(name);
+                log.info("Dropped retired index {} on {}", name, type.getSimpleName());
+            }
+        }
+    }
+}
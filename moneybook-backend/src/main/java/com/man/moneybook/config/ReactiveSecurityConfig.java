@@ -0,0 +1,90 @@
+package com.man.moneybook.config;
+
+import com.man.moneybook.security.JwtAuthenticationWebFilter;
+import com.man.moneybook.security.JwtTokenProvider;
+import com.man.moneybook.security.PrincipalCache;
+import com.man.moneybook.security.RateLimitWebFilter;
+import com.man.moneybook.security.RateLimiter;
+import com.man.moneybook.security.UserDetailsServiceImpl;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.ReactiveAuthenticationManagerAdapter;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.savedrequest.NoOpServerRequestCache;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+
+/**
+ * WebFlux counterpart of {@link SecurityConfig} for the "reactive"
+ * profile: stateless, JWT via {@link JwtAuthenticationWebFilter}, same
+ * public routes.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         JwtTokenProvider jwtTokenProvider,
+                                                         UserDetailsServiceImpl userDetailsService,
+                                                         PrincipalCache principalCache,
+                                                         RateLimiter rateLimiter,
+                                                         CorsConfigurationSource corsConfigurationSource) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .cors(cors -> cors.configurationSource(corsConfigurationSource))
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .requestCache(cache -> cache.requestCache(NoOpServerRequestCache.getInstance()))
+                .authorizeExchange(auth -> auth
+
+                        // allow preflight
+                        .pathMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+
+                        // allow auth endpoints and the liveness/readiness probes; actuator paths only
+                        // answer on management.server.port, which stays on the internal network
+                        .pathMatchers("/auth/**", "/livez", "/readyz", "/actuator/health", "/actuator/prometheus").permitAll()
+
+                        .anyExchange().authenticated()
+                )
+                .addFilterAt(
+                        new JwtAuthenticationWebFilter(jwtTokenProvider, userDetailsService, principalCache),
+                        SecurityWebFiltersOrder.AUTHENTICATION
+                )
+                .addFilterAfter(
+                        new RateLimitWebFilter(rateLimiter),
+                        SecurityWebFiltersOrder.AUTHENTICATION
+                )
+                .build();
+    }
+
+    // AuthController runs login on the password hashing pool, so the
+    // servlet-style manager is reused as is
+    @Bean
+    public AuthenticationManager authenticationManager(UserDetailsServiceImpl userDetailsService,
+                                                       PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(userDetailsService);
+        return new ProviderManager(provider);
+    }
+
+    // stops Boot from adding its default in-memory reactive user
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(AuthenticationManager authenticationManager) {
+        return new ReactiveAuthenticationManagerAdapter(authenticationManager);
+    }
+}
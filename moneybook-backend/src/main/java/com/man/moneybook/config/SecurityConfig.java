@@ -1,6 +1,13 @@
 package com.man.moneybook.config;
 
 import com.man.moneybook.security.JwtAuthenticationFilter;
+import com.man.moneybook.security.RateLimitFilter;
+import com.man.moneybook.security.RateLimiter;
+import com.man.moneybook.security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -17,12 +24,16 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimiter rateLimiter;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
+                          RateLimiter rateLimiter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimiter = rateLimiter;
     }
 
     @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
 
         http
@@ -36,14 +47,25 @@ public class SecurityConfig {
                         // allow preflight
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
-                        // allow auth endpoints
-                        .requestMatchers("/auth/**", "/actuator/health").permitAll()
+                        // async re-dispatches (SSE, streaming export) were
+                        // authorised on the original request; the stateless
+                        // chain has no context left to check them against
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
+                        // allow auth endpoints and the liveness/readiness probes; actuator paths only
+                        // answer on management.server.port, which stays on the internal network
+                        .requestMatchers("/auth/**", "/livez", "/readyz", "/actuator/health", "/actuator/prometheus").permitAll()
 
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(
                         jwtAuthenticationFilter,
                         UsernamePasswordAuthenticationFilter.class
+                )
+                // after JWT, so authenticated requests are keyed by user id
+                .addFilterAfter(
+                        new RateLimitFilter(rateLimiter),
+                        JwtAuthenticationFilter.class
                 );
 
         return http.build();
@@ -51,24 +73,24 @@ public class SecurityConfig {
 
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8();
-    }
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.auth.argon2.salt-length:16}") int saltLength,
+            @Value("${app.auth.argon2.hash-length:32}") int hashLength,
+            @Value("${app.auth.argon2.parallelism:1}") int parallelism,
+            @Value("${app.auth.argon2.memory-kib:16384}") int memory,
+            @Value("${app.auth.argon2.iterations:2}") int iterations,
+            MeterRegistry meterRegistry) {
 
-//    For full control.
-//    @Bean
-//    public PasswordEncoder passwordEncoder() {
-//        return new Argon2PasswordEncoder(
-//                16,     // salt length
-//                32,     // hash length
-//                1,      // parallelism
-//                65536,  // memory (64MB)
-//                3       // iterations
-//        );
-//    }
+        // Defaults equal defaultsForSpringSecurity_v5_8(). Raising memory or
+        // iterations rehashes each user on their next successful login.
+        return new TimedPasswordEncoder(
+                new Argon2PasswordEncoder(saltLength, hashLength, parallelism, memory, iterations),
+                meterRegistry);
+    }
 
 
     @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
     public AuthenticationManager authenticationManager(
             AuthenticationConfiguration configuration) throws Exception {
         return configuration.getAuthenticationManager();
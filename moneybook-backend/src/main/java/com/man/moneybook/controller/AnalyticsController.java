@@ -0,0 +1,49 @@
+package com.man.moneybook.controller;
+
+import com.man.moneybook.dto.analytics.CategorySpend;
+import com.man.moneybook.dto.analytics.CounterpartyBalance;
+import com.man.moneybook.dto.analytics.MonthlyFlow;
+import com.man.moneybook.service.AnalyticsService;
+import com.man.moneybook.util.SecurityUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/analytics")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    // INCOME VS EXPENSE PER MONTH
+    @GetMapping("/monthly")
+    public List<MonthlyFlow> monthly(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return analyticsService.monthlyFlow(SecurityUtils.getCurrentUserId(), from, to);
+    }
+
+    // EXPENSE PER CATEGORY
+    @GetMapping("/categories")
+    public List<CategorySpend> categories(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return analyticsService.spendByCategory(SecurityUtils.getCurrentUserId(), from, to);
+    }
+
+    // OUTSTANDING LOANS PER COUNTERPARTY
+    @GetMapping("/counterparties")
+    public List<CounterpartyBalance> counterparties() {
+        return analyticsService.counterpartyBalances(SecurityUtils.getCurrentUserId());
+    }
+}
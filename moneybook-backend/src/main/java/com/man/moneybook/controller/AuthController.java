@@ -3,10 +3,13 @@ package com.man.moneybook.controller;
 import com.man.moneybook.dto.auth.*;
 import com.man.moneybook.entity.User;
 import com.man.moneybook.repository.UserRepository;
+import com.man.moneybook.security.PasswordHashingExecutor;
 import com.man.moneybook.service.AuthService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
@@ -14,35 +17,44 @@ public class AuthController {
     private final AuthService authService;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor hashingExecutor;
 
     public AuthController(AuthService authService,
                           UserRepository userRepository,
-                          PasswordEncoder passwordEncoder) {
+                          PasswordEncoder passwordEncoder,
+                          PasswordHashingExecutor hashingExecutor) {
         this.authService = authService;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.hashingExecutor = hashingExecutor;
     }
 
+    // Both run entirely on the hashing pool: the request thread only
+    // submits, and a full queue is refused with 503 before any work.
     @PostMapping("/register")
-    public void register(@RequestBody RegisterRequestDto dto) {
+    public CompletableFuture<Void> register(@RequestBody RegisterRequestDto dto) {
+
+        return hashingExecutor.submit(() -> {
 
-        if (userRepository.findByEmail(dto.getEmail()).isPresent()) {
-            throw new IllegalArgumentException("Email already registered");
-        }
+            if (userRepository.findByEmail(dto.getEmail()).isPresent()) {
+                throw new IllegalArgumentException("Email already registered");
+            }
 
-        User user = User.builder()
-                .firstName(dto.getFirstName().trim())
-                .lastName(dto.getLastName().trim())
-                .email(dto.getEmail().toLowerCase())
-                .password(passwordEncoder.encode(dto.getPassword()))
-                .build();
+            User user = User.builder()
+                    .firstName(dto.getFirstName().trim())
+                    .lastName(dto.getLastName().trim())
+                    .email(dto.getEmail().toLowerCase())
+                    .password(passwordEncoder.encode(dto.getPassword()))
+                    .build();
 
-        userRepository.save(user);
+            userRepository.save(user);
+            return null;
+        });
     }
 
     @PostMapping("/login")
-    public AuthResponseDto login(@RequestBody LoginRequestDto dto) {
-        String token = authService.login(dto.getEmail(), dto.getPassword());
-        return new AuthResponseDto(token);
+    public CompletableFuture<AuthResponseDto> login(@RequestBody LoginRequestDto dto) {
+        return hashingExecutor.submit(() ->
+                new AuthResponseDto(authService.login(dto.getEmail(), dto.getPassword())));
     }
 }
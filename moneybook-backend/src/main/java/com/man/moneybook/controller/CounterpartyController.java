@@ -0,0 +1,45 @@
+package com.man.moneybook.controller;
+
+import com.man.moneybook.dto.analytics.CounterpartyBalance;
+import com.man.moneybook.service.CounterpartyLedgerService;
+import com.man.moneybook.util.SecurityUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/counterparties")
+public class CounterpartyController {
+
+    private static final int MAX_OPEN_LOANS = 500;
+
+    private final CounterpartyLedgerService counterpartyLedgerService;
+
+    public CounterpartyController(CounterpartyLedgerService counterpartyLedgerService) {
+        this.counterpartyLedgerService = counterpartyLedgerService;
+    }
+
+    // OPEN LOANS, LARGEST AMOUNT OWED FIRST
+    @GetMapping("/open")
+    public List<CounterpartyBalance> openLoans(
+            @RequestParam(defaultValue = "owed-to-me") String direction,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        boolean owedToUser = switch (direction) {
+            case "owed-to-me" -> true;
+            case "owed-by-me" -> false;
+            default -> throw new IllegalArgumentException(
+                    "direction must be owed-to-me or owed-by-me");
+        };
+
+        return counterpartyLedgerService.findOpen(
+                        SecurityUtils.getCurrentUserId(),
+                        owedToUser,
+                        Math.max(1, Math.min(limit, MAX_OPEN_LOANS)))
+                .stream()
+                .map(CounterpartyBalance::from)
+                .toList();
+    }
+}
@@ -0,0 +1,358 @@
+package com.man.moneybook.controller;
+
+import com.man.moneybook.dto.dashboard.DashboardSummary;
+import com.man.moneybook.dto.transaction.SyncToken;
+import com.man.moneybook.dto.transaction.TransactionChanges;
+import com.man.moneybook.dto.transaction.TransactionCursor;
+import com.man.moneybook.dto.transaction.TransactionFilter;
+import com.man.moneybook.dto.transaction.TransactionPage;
+import com.man.moneybook.dto.transaction.TransactionRequestDto;
+import com.man.moneybook.dto.transaction.TransactionResponseDto;
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.enums.ExportFormat;
+import com.man.moneybook.enums.TransactionType;
+import com.man.moneybook.event.TransactionChangedEvent;
+import com.man.moneybook.exception.SyncTokenExpiredException;
+import com.man.moneybook.exception.TransactionConflictException;
+import com.man.moneybook.repository.ReactiveTransactionRepository;
+import com.man.moneybook.service.BalanceLedgerService;
+import com.man.moneybook.service.ChangeSequenceService;
+import com.man.moneybook.service.DataVersionService;
+import com.man.moneybook.service.IdempotencyService;
+import com.man.moneybook.service.ReactiveDashboardService;
+import com.man.moneybook.service.ReactiveDataVersionService;
+import com.man.moneybook.util.ReactiveSecurityUtils;
+import com.man.moneybook.util.TransactionRules;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * WebFlux mirror of {@link TransactionController} for the "reactive"
+ * profile. Reads go through the reactive driver; the ledger update and
+ * write events reuse the blocking services on the bounded elastic
+ * scheduler so every derived collection stays in step. Bulk import is
+ * servlet-only.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/transactions")
+public class ReactiveTransactionController {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int DEFAULT_SYNC_SIZE = 500;
+    private static final int MAX_SYNC_SIZE = 1000;
+
+    private final ReactiveTransactionRepository transactionRepository;
+    private final ReactiveDashboardService dashboardService;
+    private final ReactiveDataVersionService reactiveDataVersionService;
+    private final DataVersionService dataVersionService;
+    private final BalanceLedgerService balanceLedgerService;
+    private final ChangeSequenceService changeSequenceService;
+    private final IdempotencyService idempotencyService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.sync.settle:5s}")
+    private Duration syncSettle;
+
+    @Value("${app.purge.retention:30d}")
+    private Duration tombstoneRetention;
+
+    public ReactiveTransactionController(ReactiveTransactionRepository transactionRepository,
+                                         ReactiveDashboardService dashboardService,
+                                         ReactiveDataVersionService reactiveDataVersionService,
+                                         DataVersionService dataVersionService,
+                                         BalanceLedgerService balanceLedgerService,
+                                         ChangeSequenceService changeSequenceService,
+                                         IdempotencyService idempotencyService,
+                                         ApplicationEventPublisher eventPublisher) {
+        this.transactionRepository = transactionRepository;
+        this.dashboardService = dashboardService;
+        this.reactiveDataVersionService = reactiveDataVersionService;
+        this.dataVersionService = dataVersionService;
+        this.balanceLedgerService = balanceLedgerService;
+        this.changeSequenceService = changeSequenceService;
+        this.idempotencyService = idempotencyService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // ADD TRANSACTION (a retry with the same Idempotency-Key replays the first response)
+    @PostMapping
+    public Mono<TransactionResponseDto> add(
+            @RequestBody TransactionRequestDto dto,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
+        if (TransactionRules.missingCounterparty(dto.getType(), dto.getCounterparty())) {
+            return Mono.error(new IllegalArgumentException(
+                    "Counterparty required for loan, recovery and settlement transactions"));
+        }
+
+        // the idempotency store is blocking, so the keyed path waits for
+        // the insert on the bounded elastic scheduler, never an event loop
+        return ReactiveSecurityUtils.getCurrentUserId()
+                .flatMap(userId -> idempotencyKey == null
+                        ? insert(userId, dto)
+                        : Mono.fromCallable(() -> idempotencyService.execute(
+                                        userId, idempotencyKey, dto, () -> insert(userId, dto).block()))
+                                .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    // STREAMING EXPORT (NDJSON, paced by the client)
+    @GetMapping("/export")
+    public Mono<ResponseEntity<Flux<TransactionResponseDto>>> export(
+            @ModelAttribute TransactionFilter filter,
+            @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        if (ExportFormat.from(format) != ExportFormat.NDJSON) {
+            return Mono.error(new IllegalArgumentException(
+                    "Only NDJSON export is available on the reactive stack"));
+        }
+
+        return ReactiveSecurityUtils.getCurrentUserId()
+                .map(userId -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                .filename("transactions." + ExportFormat.NDJSON.getExtension())
+                                .build()
+                                .toString())
+                        .body(transactionRepository.streamAll(userId, filter)
+                                .map(TransactionResponseDto::from)));
+    }
+
+    // GET TRANSACTION TYPE
+    @GetMapping("/types")
+    public Flux<TransactionType> getTransactionTypes() {
+        return Flux.just(TransactionType.values());
+    }
+
+    // GET TRANSACTION BY ID (for edit prefill)
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<TransactionResponseDto>> getById(@PathVariable String id,
+                                                                ServerWebExchange exchange) {
+        return ReactiveSecurityUtils.getCurrentUserId()
+                .flatMap(userId -> conditional(userId, exchange,
+                        owned(id, userId).map(TransactionResponseDto::from)));
+    }
+
+    // UPDATE TRANSACTION
+    @PutMapping("/{id}")
+    public Mono<TransactionResponseDto> update(@PathVariable String id,
+                                               @RequestBody TransactionRequestDto dto) {
+
+        return ReactiveSecurityUtils.getCurrentUserId()
+                .flatMap(userId -> claimed(userId, nextSeq(userId).flatMap(seq -> {
+
+                    // DO NOT ALLOW TYPE CHANGE: only the editable fields are written
+                    Transaction changes = Transaction.builder()
+                            .category(dto.getCategory())
+                            .amount(dto.getAmount())
+                            .description(dto.getDescription())
+                            .counterparty(dto.getCounterparty())
+                            .transactionDate(dto.getTransactionDate())
+                            .updatedSeq(seq)
+                            .updatedAt(Instant.now())
+                            .build();
+
+                    return transactionRepository
+                            .updateIfCurrent(id, userId, dto.getVersion(), changes)
+                            .switchIfEmpty(Mono.defer(() -> updateRefused(id, userId, dto)))
+                            .flatMap(before -> {
+                                Transaction saved = before.edited(changes);
+                                return afterWrite(userId, before, saved,
+                                        delta(before.getAmount(), saved.getAmount()));
+                            });
+                })));
+    }
+
+    // DELETE TRANSACTION (tombstoned now, purged after app.purge.retention)
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable String id,
+                                             @RequestParam(required = false) Long version) {
+        return ReactiveSecurityUtils.getCurrentUserId()
+                .flatMap(userId -> claimed(userId, nextSeq(userId)
+                        .flatMap(seq -> transactionRepository.markDeleted(id, userId, version, seq, Instant.now()))
+                        .switchIfEmpty(Mono.defer(() -> owned(id, userId).flatMap(current ->
+                                Mono.error(new TransactionConflictException(TransactionResponseDto.from(current))))))
+                        .flatMap(before -> Mono.fromRunnable(() -> {
+                                    balanceLedgerService.applyDelta(
+                                            userId, before.getType(), delta(before.getAmount(), null));
+                                    publish(userId, new TransactionChangedEvent(userId, before, null));
+                                })
+                                .subscribeOn(Schedulers.boundedElastic())
+                                .thenReturn(ResponseEntity.noContent().<Void>build()))));
+    }
+
+    // DASHBOARD SUMMARY
+    @GetMapping("/summary")
+    public Mono<ResponseEntity<DashboardSummary>> summary(ServerWebExchange exchange) {
+        return ReactiveSecurityUtils.getCurrentUserId()
+                .flatMap(userId -> conditional(userId, exchange, dashboardService.getSummary(userId)));
+    }
+
+    // DELTA SYNC (rows written after the since token; no token = every live row)
+    @GetMapping("/changes")
+    public Mono<TransactionChanges> changes(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "" + DEFAULT_SYNC_SIZE) int limit
+    ) {
+        Instant now = Instant.now();
+
+        SyncToken after = since != null && !since.isBlank() ? SyncToken.decode(since) : null;
+        if (after != null && after.issuedAt().isBefore(now.minus(tombstoneRetention))) {
+            return Mono.error(new SyncTokenExpiredException());
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_SYNC_SIZE));
+
+        return ReactiveSecurityUtils.getCurrentUserId()
+                .flatMap(userId -> transactionRepository.findChanges(userId, after, pageSize)
+                        .collectList()
+                        .map(rows -> TransactionChanges.of(
+                                rows, pageSize, after, now.minus(syncSettle), now)));
+    }
+
+    // LIST TRANSACTIONS (keyset paginated, newest first)
+    @GetMapping
+    public Mono<ResponseEntity<TransactionPage>> list(
+            @ModelAttribute TransactionFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            ServerWebExchange exchange
+    ) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        TransactionCursor after = cursor != null && !cursor.isBlank()
+                ? TransactionCursor.decode(cursor)
+                : null;
+
+        return ReactiveSecurityUtils.getCurrentUserId()
+                .flatMap(userId -> conditional(userId, exchange,
+                        transactionRepository.findPage(userId, filter, after, pageSize)
+                                .collectList()
+                                .map(rows -> toPage(rows, pageSize))));
+    }
+
+    private Mono<TransactionResponseDto> insert(String userId, TransactionRequestDto dto) {
+        return claimed(userId, nextSeq(userId)
+                .flatMap(seq -> transactionRepository.save(Transaction.builder()
+                        .userId(userId)
+                        .type(dto.getType())
+                        .category(dto.getCategory())
+                        .amount(dto.getAmount())
+                        .description(dto.getDescription())
+                        .counterparty(dto.getCounterparty())
+                        .transactionDate(dto.getTransactionDate())
+                        .updatedSeq(seq)
+                        .updatedAt(Instant.now())
+                        .build()))
+                .flatMap(saved -> afterWrite(userId, null, saved, saved.getAmount())));
+    }
+
+    // holds the user's write claim from before the write until its delta and
+    // events are applied, released on error and cancel too; see BalanceLedgerService#beginWrite
+    private <T> Mono<T> claimed(String userId, Mono<T> write) {
+        return Mono.usingWhen(
+                Mono.fromCallable(() -> {
+                    balanceLedgerService.beginWrite(userId);
+                    return userId;
+                }).subscribeOn(Schedulers.boundedElastic()),
+                claim -> write,
+                claim -> Mono.fromRunnable(() -> balanceLedgerService.endWrite(claim))
+                        .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    // the counter lives behind the blocking template, like the ledger
+    private Mono<Long> nextSeq(String userId) {
+        return Mono.fromCallable(() -> changeSequenceService.next(userId))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<Transaction> owned(String id, String userId) {
+        return transactionRepository.findById(id)
+                .filter(tx -> !tx.isDeleted())
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Transaction not found")))
+                .flatMap(tx -> tx.getUserId().equals(userId)
+                        ? Mono.just(tx)
+                        : Mono.error(new SecurityException("Unauthorized")));
+    }
+
+    // same reasons, in the same order, as the servlet controller
+    private Mono<Transaction> updateRefused(String id, String userId, TransactionRequestDto dto) {
+        return owned(id, userId).flatMap(current ->
+                TransactionRules.missingCounterparty(current.getType(), dto.getCounterparty())
+                        ? Mono.error(new IllegalArgumentException("Counterparty required"))
+                        : Mono.error(new TransactionConflictException(TransactionResponseDto.from(current))));
+    }
+
+    private Mono<TransactionResponseDto> afterWrite(String userId,
+                                                    Transaction before,
+                                                    Transaction saved,
+                                                    BigDecimal delta) {
+        return Mono.fromRunnable(() -> {
+                    balanceLedgerService.applyDelta(userId, saved.getType(), delta);
+                    publish(userId, new TransactionChangedEvent(userId, before, saved));
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenReturn(TransactionResponseDto.from(saved));
+    }
+
+    // Bumped even when a listener throws: the write is already stored and
+    // a stale ETag would keep answering 304 until the user's next write.
+    private void publish(String userId, Object event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } finally {
+            dataVersionService.bump(userId);
+        }
+    }
+
+    // Same tags as the servlet controller; the body is only subscribed
+    // to when the client's copy is stale.
+    private <T> Mono<ResponseEntity<T>> conditional(String userId,
+                                                    ServerWebExchange exchange,
+                                                    Mono<T> body) {
+        String query = exchange.getRequest().getURI().getRawQuery();
+        String variant = exchange.getRequest().getURI().getRawPath() + (query != null ? "?" + query : "");
+
+        return reactiveDataVersionService.etag(userId, variant)
+                .flatMap(etag -> exchange.checkNotModified(etag)
+                        ? Mono.empty()
+                        : body.map(value -> ResponseEntity.ok()
+                                .eTag(etag)
+                                .cacheControl(CacheControl.noCache().cachePrivate())
+                                .body(value)));
+    }
+
+    private static TransactionPage toPage(List<Transaction> rows, int pageSize) {
+
+        boolean hasNext = rows.size() > pageSize;
+        List<Transaction> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = hasNext
+                ? TransactionCursor.after(page.get(page.size() - 1)).encode()
+                : null;
+
+        return new TransactionPage(page.stream().map(TransactionResponseDto::from).toList(), nextCursor);
+    }
+
+    private static BigDecimal delta(BigDecimal oldAmount, BigDecimal newAmount) {
+        BigDecimal before = oldAmount != null ? oldAmount : BigDecimal.ZERO;
+        BigDecimal after = newAmount != null ? newAmount : BigDecimal.ZERO;
+        return after.subtract(before);
+    }
+}
@@ -1,64 +1,160 @@
 package com.man.moneybook.controller;
 
 import com.man.moneybook.dto.dashboard.DashboardSummary;
+import com.man.moneybook.dto.transaction.BulkImportResult;
+import com.man.moneybook.dto.transaction.SyncToken;
+import com.man.moneybook.dto.transaction.TransactionChanges;
+import com.man.moneybook.dto.transaction.TransactionCursor;
+import com.man.moneybook.dto.transaction.TransactionFilter;
+import com.man.moneybook.dto.transaction.TransactionPage;
 import com.man.moneybook.dto.transaction.TransactionRequestDto;
+import com.man.moneybook.dto.transaction.TransactionResponseDto;
 import com.man.moneybook.entity.Transaction;
-import com.man.moneybook.entity.User;
+import com.man.moneybook.enums.ExportFormat;
 import com.man.moneybook.enums.TransactionType;
+import com.man.moneybook.event.TransactionChangedEvent;
+import com.man.moneybook.exception.SyncTokenExpiredException;
+import com.man.moneybook.exception.TransactionConflictException;
 import com.man.moneybook.repository.TransactionRepository;
-import com.man.moneybook.repository.UserRepository;
+import com.man.moneybook.service.BalanceLedgerService;
+import com.man.moneybook.service.ChangeSequenceService;
+import com.man.moneybook.service.DashboardService;
+import com.man.moneybook.service.DataVersionService;
+import com.man.moneybook.service.IdempotencyService;
+import com.man.moneybook.service.SummaryStreamService;
+import com.man.moneybook.service.TransactionExportService;
+import com.man.moneybook.service.TransactionImportService;
 import com.man.moneybook.util.SecurityUtils;
+import com.man.moneybook.util.TransactionRules;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/transactions")
 public class TransactionController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int DEFAULT_SYNC_SIZE = 500;
+    private static final int MAX_SYNC_SIZE = 1000;
+
     private final TransactionRepository transactionRepository;
-    private final UserRepository userRepository;
+    private final DashboardService dashboardService;
+    private final BalanceLedgerService balanceLedgerService;
+    private final TransactionImportService transactionImportService;
+    private final TransactionExportService transactionExportService;
+    private final DataVersionService dataVersionService;
+    private final SummaryStreamService summaryStreamService;
+    private final IdempotencyService idempotencyService;
+    private final ChangeSequenceService changeSequenceService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.sync.settle:5s}")
+    private Duration syncSettle;
+
+    @Value("${app.purge.retention:30d}")
+    private Duration tombstoneRetention;
 
     public TransactionController(TransactionRepository transactionRepository,
-                                 UserRepository userRepository) {
+                                 DashboardService dashboardService,
+                                 BalanceLedgerService balanceLedgerService,
+                                 TransactionImportService transactionImportService,
+                                 TransactionExportService transactionExportService,
+                                 DataVersionService dataVersionService,
+                                 SummaryStreamService summaryStreamService,
+                                 IdempotencyService idempotencyService,
+                                 ChangeSequenceService changeSequenceService,
+                                 ApplicationEventPublisher eventPublisher) {
         this.transactionRepository = transactionRepository;
-        this.userRepository = userRepository;
+        this.dashboardService = dashboardService;
+        this.balanceLedgerService = balanceLedgerService;
+        this.transactionImportService = transactionImportService;
+        this.transactionExportService = transactionExportService;
+        this.dataVersionService = dataVersionService;
+        this.summaryStreamService = summaryStreamService;
+        this.idempotencyService = idempotencyService;
+        this.changeSequenceService = changeSequenceService;
+        this.eventPublisher = eventPublisher;
     }
 
-    // ADD TRANSACTION
+    // ADD TRANSACTION (a retry with the same Idempotency-Key replays the first response)
     @PostMapping
-    public Transaction add(@RequestBody TransactionRequestDto dto) {
-
-        User user = userRepository
-                .findByEmail(SecurityUtils.getCurrentUserEmail())
-                .orElseThrow();
-
-        // Validation for loan / recovery / settlement
-        if ((dto.getType() == TransactionType.LOAN_TAKEN
-                || dto.getType() == TransactionType.LOAN_GIVEN
-                || dto.getType() == TransactionType.RECOVERY
-                || dto.getType() == TransactionType.SETTLEMENT)
-                && (dto.getCounterparty() == null
-                || dto.getCounterparty().isBlank())) {
+    public TransactionResponseDto add(
+            @RequestBody TransactionRequestDto dto,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
+        String userId = SecurityUtils.getCurrentUserId();
 
-            throw new IllegalArgumentException(
-                    "Counterparty required for loan, recovery and settlement transactions"
-            );
+        if (idempotencyKey == null) {
+            return insert(userId, dto);
         }
+        return idempotencyService.execute(userId, idempotencyKey, dto, () -> insert(userId, dto));
+    }
 
-        Transaction tx = Transaction.builder()
-                .userId(user.getId())
-                .type(dto.getType())
-                .category(dto.getCategory())
-                .amount(dto.getAmount())
-                .description(dto.getDescription())
-                .counterparty(dto.getCounterparty())
-                .transactionDate(dto.getTransactionDate())
-                .build();
+    // BULK IMPORT (JSON array or CSV with a header row)
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkImportResult bulkImportJson(InputStream body) throws IOException {
+        return transactionImportService.importJson(SecurityUtils.getCurrentUserId(), body);
+    }
 
-        return transactionRepository.save(tx);
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public BulkImportResult bulkImportCsv(InputStream body) throws IOException {
+        return transactionImportService.importCsv(SecurityUtils.getCurrentUserId(), body);
+    }
+
+    // STREAMING EXPORT (NDJSON or CSV, gzip when the client accepts it)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @ModelAttribute TransactionFilter filter,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        String userId = SecurityUtils.getCurrentUserId();
+        ExportFormat exportFormat = ExportFormat.from(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, true) : out;
+            transactionExportService.export(userId, filter, exportFormat, target);
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     // GET TRANSACTION TYPE
@@ -69,117 +165,258 @@ public class TransactionController {
 
     // GET TRANSACTION BY ID (for edit prefill)
     @GetMapping("/{id}")
-    public Transaction getById(@PathVariable String id) {
-
-        User user = userRepository
-                .findByEmail(SecurityUtils.getCurrentUserEmail())
-                .orElseThrow();
+    public ResponseEntity<TransactionResponseDto> getById(@PathVariable String id, ServletWebRequest request) {
 
-        Transaction tx = transactionRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Transaction not found"));
+        String userId = SecurityUtils.getCurrentUserId();
 
-        if (!tx.getUserId().equals(user.getId())) {
-            throw new SecurityException("Unauthorized");
+        String etag = etag(userId, request);
+        if (request.checkNotModified(etag)) {
+            return null;
         }
 
-        return tx;
+        return conditional(etag, TransactionResponseDto.from(owned(id, userId)));
     }
 
     // UPDATE TRANSACTION
     @PutMapping("/{id}")
-    public Transaction update(
+    public TransactionResponseDto update(
             @PathVariable String id,
             @RequestBody TransactionRequestDto dto
     ) {
-        User user = userRepository
-                .findByEmail(SecurityUtils.getCurrentUserEmail())
-                .orElseThrow();
+        String userId = SecurityUtils.getCurrentUserId();
 
-        Transaction tx = transactionRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Transaction not found"));
+        // DO NOT ALLOW TYPE CHANGE: only the editable fields are written
+        Transaction changes = Transaction.builder()
+                .category(dto.getCategory())
+                .amount(dto.getAmount())
+                .description(dto.getDescription())
+                .counterparty(dto.getCounterparty())
+                .transactionDate(dto.getTransactionDate())
+                .updatedSeq(changeSequenceService.next(userId))
+                .updatedAt(Instant.now())
+                .build();
 
-        if (!tx.getUserId().equals(user.getId())) {
-            throw new SecurityException("Unauthorized");
-        }
+        Transaction before;
+        Transaction saved;
+        balanceLedgerService.beginWrite(userId);
+        try {
+            // one round trip when the row is current; the read below only explains a miss
+            before = transactionRepository.updateIfCurrent(id, userId, dto.getVersion(), changes);
+            if (before == null) {
+                throw updateRefused(id, userId, dto);
+            }
 
-        // DO NOT ALLOW TYPE CHANGE
-        // tx.setType(...) ← intentionally NOT allowed
+            saved = before.edited(changes);
 
-        // Validation
-        if ((tx.getType() == TransactionType.LOAN_TAKEN
-                || tx.getType() == TransactionType.LOAN_GIVEN
-                || tx.getType() == TransactionType.RECOVERY
-                || tx.getType() == TransactionType.SETTLEMENT)
-                && (dto.getCounterparty() == null || dto.getCounterparty().isBlank())) {
-            throw new IllegalArgumentException("Counterparty required");
-        }
+            balanceLedgerService.applyDelta(
+                    userId, saved.getType(), delta(before.getAmount(), saved.getAmount()));
 
-        tx.setCategory(dto.getCategory());
-        tx.setAmount(dto.getAmount());
-        tx.setDescription(dto.getDescription());
-        tx.setCounterparty(dto.getCounterparty());
-        tx.setTransactionDate(dto.getTransactionDate());
+            publish(userId, new TransactionChangedEvent(userId, before, saved));
+        } finally {
+            balanceLedgerService.endWrite(userId);
+        }
 
-        return transactionRepository.save(tx);
+        return TransactionResponseDto.from(saved);
     }
 
+    // DELETE TRANSACTION (tombstoned now, purged after app.purge.retention)
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(
+            @PathVariable String id,
+            @RequestParam(required = false) Long version
+    ) {
+        String userId = SecurityUtils.getCurrentUserId();
+
+        Transaction before;
+        balanceLedgerService.beginWrite(userId);
+        try {
+            before = transactionRepository.markDeleted(
+                    id, userId, version, changeSequenceService.next(userId), Instant.now());
+            if (before == null) {
+                throw deleteRefused(id, userId);
+            }
+
+            balanceLedgerService.applyDelta(
+                    userId, before.getType(), delta(before.getAmount(), null));
+
+            publish(userId, new TransactionChangedEvent(userId, before, null));
+        } finally {
+            balanceLedgerService.endWrite(userId);
+        }
+
+        return ResponseEntity.noContent().build();
+    }
 
     // DASHBOARD SUMMARY
     @GetMapping("/summary")
-    public DashboardSummary summary() {
+    public ResponseEntity<DashboardSummary> summary(ServletWebRequest request) {
+
+        String userId = SecurityUtils.getCurrentUserId();
+
+        String etag = etag(userId, request);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        return conditional(etag, dashboardService.getSummary(userId));
+    }
+
+    // DASHBOARD SUMMARY STREAM (SSE, current summary first, then one event per change)
+    @GetMapping(value = "/summary/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter summaryStream() {
+        return summaryStreamService.subscribe(SecurityUtils.getCurrentUserId());
+    }
 
-        User user = userRepository
-                .findByEmail(SecurityUtils.getCurrentUserEmail())
-                .orElseThrow();
+    // DELTA SYNC (rows written after the since token; no token = every live row)
+    @GetMapping("/changes")
+    public TransactionChanges changes(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "" + DEFAULT_SYNC_SIZE) int limit
+    ) {
+        String userId = SecurityUtils.getCurrentUserId();
+        Instant now = Instant.now();
 
-        List<Transaction> txs =
-                transactionRepository.findByUserId(user.getId());
+        SyncToken after = since != null && !since.isBlank() ? SyncToken.decode(since) : null;
+        if (after != null && after.issuedAt().isBefore(now.minus(tombstoneRetention))) {
+            throw new SyncTokenExpiredException();
+        }
 
-        /* ---------------- BALANCE ---------------- */
-        BigDecimal balance = txs.stream()
-                .map(tx -> switch (tx.getType()) {
-                    case INCOME, LOAN_TAKEN, RECOVERY -> tx.getAmount();
-                    case EXPENSE, LOAN_GIVEN, SETTLEMENT -> tx.getAmount().negate();
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        int pageSize = Math.max(1, Math.min(limit, MAX_SYNC_SIZE));
 
-        /* ---------------- LOAN TAKEN ---------------- */
-        BigDecimal loanTaken = txs.stream()
-                .filter(t -> t.getType() == TransactionType.LOAN_TAKEN)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return TransactionChanges.of(
+                transactionRepository.findChanges(userId, after, pageSize),
+                pageSize, after, now.minus(syncSettle), now);
+    }
 
-        BigDecimal settled = txs.stream()
-                .filter(t -> t.getType() == TransactionType.SETTLEMENT)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    // LIST TRANSACTIONS (keyset paginated, newest first)
+    @GetMapping
+    public ResponseEntity<TransactionPage> list(
+            @ModelAttribute TransactionFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            ServletWebRequest request
+    ) {
+        String userId = SecurityUtils.getCurrentUserId();
 
-        BigDecimal netLoanTaken = loanTaken.subtract(settled);
+        String etag = etag(userId, request);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
 
-        /* ---------------- LOAN GIVEN ---------------- */
-        BigDecimal loanGiven = txs.stream()
-                .filter(t -> t.getType() == TransactionType.LOAN_GIVEN)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
 
-        BigDecimal recovered = txs.stream()
-                .filter(t -> t.getType() == TransactionType.RECOVERY)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Slice<Transaction> page = transactionRepository.findPage(
+                userId,
+                filter,
+                cursor != null && !cursor.isBlank() ? TransactionCursor.decode(cursor) : null,
+                pageSize
+        );
 
-        BigDecimal netLoanGiven = loanGiven.subtract(recovered);
+        String nextCursor = page.hasNext()
+                ? TransactionCursor.after(page.getContent().get(page.getNumberOfElements() - 1)).encode()
+                : null;
 
-        return new DashboardSummary(balance, netLoanTaken, netLoanGiven);
+        return conditional(etag, new TransactionPage(
+                page.getContent().stream().map(TransactionResponseDto::from).toList(),
+                nextCursor));
     }
 
-    // LIST TRANSACTIONS
-    @GetMapping
-    public List<Transaction> list() {
+    private TransactionResponseDto insert(String userId, TransactionRequestDto dto) {
+
+        // Validation for loan / recovery / settlement
+        if (TransactionRules.missingCounterparty(dto.getType(), dto.getCounterparty())) {
+
+            throw new IllegalArgumentException(
+                    "Counterparty required for loan, recovery and settlement transactions"
+            );
+        }
 
-        User user = userRepository
-                .findByEmail(SecurityUtils.getCurrentUserEmail())
-                .orElseThrow();
+        Transaction tx = Transaction.builder()
+                .userId(userId)
+                .type(dto.getType())
+                .category(dto.getCategory())
+                .amount(dto.getAmount())
+                .description(dto.getDescription())
+                .counterparty(dto.getCounterparty())
+                .transactionDate(dto.getTransactionDate())
+                .updatedSeq(changeSequenceService.next(userId))
+                .updatedAt(Instant.now())
+                .build();
+
+        // claimed until every derived collection has the write, see BalanceLedgerService#beginWrite
+        Transaction saved;
+        balanceLedgerService.beginWrite(userId);
+        try {
+            saved = transactionRepository.save(tx);
+
+            balanceLedgerService.applyDelta(
+                    userId, saved.getType(), saved.getAmount());
+
+            publish(userId, new TransactionChangedEvent(userId, null, saved));
+        } finally {
+            balanceLedgerService.endWrite(userId);
+        }
+
+        return TransactionResponseDto.from(saved);
+    }
+
+    // a tombstone reads as missing until the purge worker removes it
+    private Transaction owned(String id, String userId) {
+
+        Transaction tx = transactionRepository.findById(id)
+                .filter(found -> !found.isDeleted())
+                .orElseThrow(() -> new IllegalArgumentException("Transaction not found"));
+
+        if (!tx.getUserId().equals(userId)) {
+            throw new SecurityException("Unauthorized");
+        }
+        return tx;
+    }
+
+    private RuntimeException updateRefused(String id, String userId, TransactionRequestDto dto) {
+
+        Transaction current = owned(id, userId);
+
+        if (TransactionRules.missingCounterparty(current.getType(), dto.getCounterparty())) {
+            return new IllegalArgumentException("Counterparty required");
+        }
+        return new TransactionConflictException(TransactionResponseDto.from(current));
+    }
+
+    // owned() throws for a missing row; otherwise only the version can differ
+    private RuntimeException deleteRefused(String id, String userId) {
+        return new TransactionConflictException(TransactionResponseDto.from(owned(id, userId)));
+    }
+
+    // Bumped even when a listener throws: the write is already stored and
+    // a stale ETag would keep answering 304 until the user's next write.
+    private void publish(String userId, Object event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } finally {
+            dataVersionService.bump(userId);
+        }
+    }
+
+    // Read the version before the data: a write landing in between then
+    // yields a tag that is already stale, never a stale body under a new tag.
+    private String etag(String userId, ServletWebRequest request) {
+        String query = request.getRequest().getQueryString();
+        return dataVersionService.etag(
+                userId,
+                request.getRequest().getRequestURI() + (query != null ? "?" + query : ""));
+    }
+
+    private static <T> ResponseEntity<T> conditional(String etag, T body) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(body);
+    }
 
-        return transactionRepository.findByUserId(user.getId());
+    private static BigDecimal delta(BigDecimal oldAmount, BigDecimal newAmount) {
+        BigDecimal before = oldAmount != null ? oldAmount : BigDecimal.ZERO;
+        BigDecimal after = newAmount != null ? newAmount : BigDecimal.ZERO;
+        return after.subtract(before);
     }
 }
@@ -0,0 +1,15 @@
+package com.man.moneybook.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class CategorySpend {
+
+    private String category;
+    private BigDecimal total;
+    private long count;
+}
@@ -0,0 +1,25 @@
+package com.man.moneybook.dto.analytics;
+
+import com.man.moneybook.entity.CounterpartyLedger;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class CounterpartyBalance {
+
+    private String counterparty;
+    private BigDecimal receivable;  // loan given minus recovery
+    private BigDecimal payable;     // loan taken minus settlement
+    private BigDecimal outstanding; // receivable minus payable
+
+    public static CounterpartyBalance from(CounterpartyLedger ledger) {
+        return new CounterpartyBalance(
+                ledger.getDisplayName(),
+                ledger.getReceivable(),
+                ledger.getPayable(),
+                ledger.getOutstanding());
+    }
+}
@@ -0,0 +1,16 @@
+package com.man.moneybook.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class MonthlyFlow {
+
+    private String month;           // yyyy-MM
+    private BigDecimal income;
+    private BigDecimal expense;
+    private BigDecimal net;
+}
@@ -1,6 +1,9 @@
 package com.man.moneybook.dto.dashboard;
 
+import com.man.moneybook.enums.TransactionType;
+
 import java.math.BigDecimal;
+import java.util.Map;
 
 public class DashboardSummary {
 
@@ -16,6 +19,33 @@ public class DashboardSummary {
         this.totalLoanGiven = totalLoanGiven;
     }
 
+    /**
+     * Builds the dashboard figures from per-type totals. Missing types
+     * count as zero.
+     */
+    public static DashboardSummary fromTotals(Map<TransactionType, BigDecimal> totals) {
+
+        BigDecimal income = totals.getOrDefault(TransactionType.INCOME, BigDecimal.ZERO);
+        BigDecimal expense = totals.getOrDefault(TransactionType.EXPENSE, BigDecimal.ZERO);
+        BigDecimal loanTaken = totals.getOrDefault(TransactionType.LOAN_TAKEN, BigDecimal.ZERO);
+        BigDecimal loanGiven = totals.getOrDefault(TransactionType.LOAN_GIVEN, BigDecimal.ZERO);
+        BigDecimal recovered = totals.getOrDefault(TransactionType.RECOVERY, BigDecimal.ZERO);
+        BigDecimal settled = totals.getOrDefault(TransactionType.SETTLEMENT, BigDecimal.ZERO);
+
+        BigDecimal balance = income
+                .add(loanTaken)
+                .add(recovered)
+                .subtract(expense)
+                .subtract(loanGiven)
+                .subtract(settled);
+
+        return new DashboardSummary(
+                balance,
+                loanTaken.subtract(settled),
+                loanGiven.subtract(recovered)
+        );
+    }
+
     public BigDecimal getBalance() {
         return balance;
     }
@@ -0,0 +1,37 @@
+package com.man.moneybook.dto.dashboard;
+
+import com.man.moneybook.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One row of the per-type aggregation: the summed amount of a user's
+ * transactions of a single {@link TransactionType}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypeTotal {
+
+    @Id
+    private TransactionType type;
+
+    private BigDecimal total;
+
+    public static Map<TransactionType, BigDecimal> asMap(List<TypeTotal> rows) {
+        Map<TransactionType, BigDecimal> totals = new EnumMap<>(TransactionType.class);
+        for (TypeTotal row : rows) {
+            if (row.getType() != null && row.getTotal() != null) {
+                totals.put(row.getType(), row.getTotal());
+            }
+        }
+        return totals;
+    }
+}
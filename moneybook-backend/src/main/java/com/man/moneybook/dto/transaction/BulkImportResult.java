@@ -0,0 +1,33 @@
+package com.man.moneybook.dto.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkImportResult {
+
+    // error details kept per response; further failures are only counted
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private int received;
+    private int imported;
+    private int failed;
+    private List<RowError> errors = new ArrayList<>();
+
+    public void reject(int row, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private int row;            // 1-based, excluding the CSV header
+        private String message;
+    }
+}
@@ -0,0 +1,49 @@
+package com.man.moneybook.dto.transaction;
+
+import com.man.moneybook.entity.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position in a user's (updatedSeq, id) ordering plus the time it was
+ * handed out, exchanged with clients as an opaque URL-safe token. The
+ * time lets the server refuse tokens older than the tombstone retention,
+ * whose deletions may already be purged.
+ */
+public record SyncToken(long seq, String id, Instant issuedAt) {
+
+    public static SyncToken after(Transaction tx, Instant issuedAt) {
+        return new SyncToken(
+                tx.getUpdatedSeq() != null ? tx.getUpdatedSeq() : 0L, tx.getId(), issuedAt);
+    }
+
+    public SyncToken reissued(Instant issuedAt) {
+        return new SyncToken(seq, id, issuedAt);
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((seq + "|" + id + "|" + issuedAt.toEpochMilli())
+                        .getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SyncToken decode(String token) {
+        try {
+            String[] parts = new String(
+                    Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+
+            if (parts.length != 3 || parts[1].isEmpty()) {
+                throw new IllegalArgumentException("Invalid sync token");
+            }
+
+            return new SyncToken(
+                    Long.parseLong(parts[0]),
+                    parts[1],
+                    Instant.ofEpochMilli(Long.parseLong(parts[2])));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid sync token");
+        }
+    }
+}
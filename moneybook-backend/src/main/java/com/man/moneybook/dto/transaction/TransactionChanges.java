@@ -0,0 +1,66 @@
+package com.man.moneybook.dto.transaction;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.man.moneybook.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of GET /transactions/changes: rows to upsert, ids to drop,
+ * and the token to send as {@code since} next time. Keep paging while
+ * {@code hasMore} is true.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionChanges {
+
+    private List<TransactionResponseDto> changed;
+    private List<String> deleted;
+    private String next;
+    private boolean hasMore;
+
+    /**
+     * Builds a page from up to {@code limit + 1} rows in (updatedSeq, id)
+     * order. Sequence numbers are handed out before the write lands, so a
+     * slow write can appear after a later one. The token therefore only
+     * moves past rows written before {@code settledBefore}. Newer rows
+     * are still returned, and are returned again on the next call.
+     */
+    public static TransactionChanges of(List<Transaction> rows,
+                                        int limit,
+                                        SyncToken since,
+                                        Instant settledBefore,
+                                        Instant now) {
+
+        List<Transaction> page = rows.size() > limit ? rows.subList(0, limit) : rows;
+
+        List<TransactionResponseDto> changed = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        SyncToken next = since != null ? since.reissued(now) : null;
+        boolean settled = true;
+
+        for (Transaction tx : page) {
+            if (tx.isDeleted()) {
+                deleted.add(tx.getId());
+            } else {
+                changed.add(TransactionResponseDto.from(tx));
+            }
+
+            settled = settled && (tx.getUpdatedAt() == null || tx.getUpdatedAt().isBefore(settledBefore));
+            if (settled) {
+                next = SyncToken.after(tx, now);
+            }
+        }
+
+        return new TransactionChanges(
+                changed,
+                deleted,
+                next != null ? next.encode() : null,
+                settled && rows.size() > limit);
+    }
+}
@@ -0,0 +1,47 @@
+package com.man.moneybook.dto.transaction;
+
+import com.man.moneybook.entity.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the (transactionDate desc, id desc) ordering,
+ * exchanged with clients as an opaque URL-safe token.
+ */
+public record TransactionCursor(LocalDate transactionDate, String id) {
+
+    private static final String NO_DATE = "-";
+
+    public static TransactionCursor after(Transaction tx) {
+        return new TransactionCursor(tx.getTransactionDate(), tx.getId());
+    }
+
+    public String encode() {
+        String date = transactionDate != null ? transactionDate.toString() : NO_DATE;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((date + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(
+                    Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+
+            int sep = raw.indexOf('|');
+            if (sep < 0 || sep == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+
+            String date = raw.substring(0, sep);
+            return new TransactionCursor(
+                    NO_DATE.equals(date) ? null : LocalDate.parse(date),
+                    raw.substring(sep + 1)
+            );
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
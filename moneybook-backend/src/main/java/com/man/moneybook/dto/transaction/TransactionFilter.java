@@ -0,0 +1,21 @@
+package com.man.moneybook.dto.transaction;
+
+import com.man.moneybook.enums.TransactionType;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+public class TransactionFilter {
+
+    private TransactionType type;
+    private String category;
+    private String counterparty;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;         // inclusive
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;           // inclusive
+}
@@ -0,0 +1,14 @@
+package com.man.moneybook.dto.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class TransactionPage {
+
+    private List<TransactionResponseDto> items;
+    private String nextCursor;      // null on the last page
+}
@@ -15,4 +15,7 @@ public class TransactionRequestDto {
     private String description;
     private String counterparty;   // required for loans
     private LocalDate transactionDate;
+
+    // version the client last read; updates with a stale one get 409
+    private Long version;
 }
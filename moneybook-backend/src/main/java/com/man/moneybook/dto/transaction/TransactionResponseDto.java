@@ -0,0 +1,46 @@
+package com.man.moneybook.dto.transaction;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * What the API sends for a transaction: no owner id, no internal
+ * fields, and empty optionals left out of the JSON entirely.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionResponseDto {
+
+    // the only fields read from Mongo for listings and exports
+    public static final String[] FIELDS = {
+            "_id", "type", "category", "amount", "description", "counterparty", "transactionDate", "version"
+    };
+
+    private String id;
+    private TransactionType type;
+    private String category;
+    private BigDecimal amount;
+    private String description;
+    private String counterparty;
+    private LocalDate transactionDate;
+    private Long version;
+
+    public static TransactionResponseDto from(Transaction tx) {
+        return new TransactionResponseDto(
+                tx.getId(),
+                tx.getType(),
+                tx.getCategory(),
+                tx.getAmount(),
+                tx.getDescription(),
+                tx.getCounterparty(),
+                tx.getTransactionDate(),
+                tx.getVersion());
+    }
+}
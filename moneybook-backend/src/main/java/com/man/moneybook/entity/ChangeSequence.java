@@ -0,0 +1,25 @@
+package com.man.moneybook.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Per-user counter behind {@link Transaction#getUpdatedSeq()}. Unlike
+ * user_data_versions this must never be dropped or recreated: sync
+ * tokens held by clients compare against the numbers it hands out.
+ */
+@Document(collection = "change_sequences")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeSequence {
+
+    //  one document per user, keyed by the user's id
+    @Id
+    private String userId;
+
+    private long seq;
+}
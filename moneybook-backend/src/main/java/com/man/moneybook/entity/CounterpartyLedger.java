@@ -0,0 +1,57 @@
+package com.man.moneybook.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Outstanding loan position between a user and one counterparty,
+ * kept in step with the transactions collection through $inc deltas.
+ * {@code outstanding} is receivable minus payable: positive when the
+ * counterparty owes the user, negative when the user owes them.
+ */
+@Document(collection = "counterparty_ledgers")
+@CompoundIndex(name = "user_outstanding", def = "{'userId': 1, 'outstanding': -1}")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CounterpartyLedger {
+
+    //  userId|normalized counterparty key
+    @Id
+    private String id;
+
+    private String userId;
+
+    private String key;
+
+    // spelling from the latest transaction
+    private String displayName;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal receivable;  // loan given minus recovery
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal payable;     // loan taken minus settlement
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal outstanding;
+
+    private Instant updatedAt;
+
+    // bumped by every delta; a rebuild only replaces or removes the
+    // entry if it still holds the generation read before aggregating
+    private Long generation;
+
+    public static String idOf(String userId, String key) {
+        return userId + "|" + key;
+    }
+}
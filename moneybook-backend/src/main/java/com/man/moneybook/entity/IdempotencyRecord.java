@@ -0,0 +1,39 @@
+package com.man.moneybook.entity;
+
+import com.man.moneybook.dto.transaction.TransactionResponseDto;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * One Idempotency-Key per user. Inserted before the write as a claim
+ * (response still null), then completed with the response that was
+ * sent. Mongo's TTL monitor removes it a day after the claim.
+ */
+@Document(collection = "idempotency_keys")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    // userId|key, so the unique _id index elects a single winner
+    @Id
+    private String id;
+
+    // SHA-256 of the request body; the same key with a different body is refused
+    private String requestHash;
+
+    private TransactionResponseDto response;
+
+    @Indexed(name = "created_ttl", expireAfter = "24h")
+    private Date createdAt;
+
+    public static String idOf(String userId, String key) {
+        return userId + "|" + key;
+    }
+}
@@ -0,0 +1,27 @@
+package com.man.moneybook.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Records that a one-off startup backfill ran to completion, so later
+ * starts skip it with a single lookup by id instead of rescanning the
+ * transactions collection. Delete the document to run it again.
+ */
+@Document(collection = "migrations")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MigrationMarker {
+
+    //  the backfill's name
+    @Id
+    private String id;
+
+    private Instant completedAt;
+}
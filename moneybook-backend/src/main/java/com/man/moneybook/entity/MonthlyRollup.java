@@ -0,0 +1,52 @@
+package com.man.moneybook.entity;
+
+import com.man.moneybook.enums.TransactionType;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Per-user total and count for one (month, type, category) bucket,
+ * kept in step with the transactions collection through $inc on
+ * every write so month-aligned ranges read tens of small documents.
+ */
+@Document(collection = "monthly_rollups")
+@CompoundIndex(name = "user_month", def = "{'userId': 1, 'month': 1}")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MonthlyRollup {
+
+    //  deterministic key so concurrent upserts land on the same document
+    @Id
+    private String id;
+
+    private String userId;
+
+    private String month;           // yyyy-MM
+
+    private TransactionType type;
+
+    private String category;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal total;
+
+    private long count;
+
+    // Bumped by every $inc; a rebuild only replaces or removes the bucket
+    // if nothing bumped it while the aggregation ran.
+    private Long generation;
+
+    public static String idOf(String userId, YearMonth month, TransactionType type, String category) {
+        return userId + "|" + month + "|" + type + "|" + (category != null ? category : "");
+    }
+}
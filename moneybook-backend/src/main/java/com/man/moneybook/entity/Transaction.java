@@ -3,17 +3,41 @@ package com.man.moneybook.entity;
 import com.man.moneybook.enums.TransactionType;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Document(collection = "transactions")
+@CompoundIndexes({
+        // Partial on live rows: queries must carry deleted: false to use them.
+        // listing, keyset pagination and the per-user summary $match
+        @CompoundIndex(name = "live_user_date_id",
+                def = "{'userId': 1, 'transactionDate': -1, '_id': -1}",
+                partialFilter = "{'deleted': false}"),
+        @CompoundIndex(name = "live_user_type",
+                def = "{'userId': 1, 'type': 1}",
+                partialFilter = "{'deleted': false}"),
+        @CompoundIndex(name = "live_user_counterparty",
+                def = "{'userId': 1, 'counterparty': 1}",
+                partialFilter = "{'deleted': false}"),
+        // purge worker: only tombstones, oldest first
+        @CompoundIndex(name = "tombstones",
+                def = "{'deletedAt': 1}",
+                partialFilter = "{'deleted': true}"),
+        // delta sync (GET /transactions/changes), tombstones included
+        @CompoundIndex(name = "user_seq_id",
+                def = "{'userId': 1, 'updatedSeq': 1, '_id': 1}")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Transaction {
 
     @Id
@@ -29,4 +53,32 @@ public class Transaction {
 
     //  Mongo reference
     private String userId;
+
+    // bumped by every update; null on rows written before versioning and by bulk import
+    @Version
+    private Long version;
+
+    // Tombstone. Always written (false on insert) because a partial index
+    // can't select rows where the field is missing.
+    private boolean deleted;
+    private Instant deletedAt;
+
+    // Stamped by every write from the user's change_sequences counter;
+    // 0 on rows written before delta sync.
+    private Long updatedSeq;
+    private Instant updatedAt;
+
+    // this row as an update with changes' editable fields leaves it
+    public Transaction edited(Transaction changes) {
+        return toBuilder()
+                .category(changes.getCategory())
+                .amount(changes.getAmount())
+                .description(changes.getDescription())
+                .counterparty(changes.getCounterparty())
+                .transactionDate(changes.getTransactionDate())
+                .updatedSeq(changes.getUpdatedSeq())
+                .updatedAt(changes.getUpdatedAt())
+                .version(version != null ? version + 1 : 1L)
+                .build();
+    }
 }
@@ -2,6 +2,7 @@ package com.man.moneybook.entity;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "users")
@@ -18,6 +19,7 @@ public class User {
     private String firstName;
     private String lastName;
 
+    @Indexed(name = "email_unique", unique = true)
     private String email;
     private String password;
 
@@ -0,0 +1,116 @@
+package com.man.moneybook.entity;
+
+import com.man.moneybook.enums.TransactionType;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Running per-type totals for one user, kept in step with the
+ * transactions collection through $inc deltas on every write.
+ * Totals are stored as decimal128 so MongoDB can increment them.
+ */
+@Document(collection = "user_balances")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserBalance {
+
+    //  one document per user, keyed by the user's id
+    @Id
+    private String userId;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal income;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal expense;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal loanTaken;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal loanGiven;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal recovery;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal settlement;
+
+    private Instant updatedAt;
+
+    // Bumped by every delta and every rebuild; a rebuild only replaces
+    // the document if nothing bumped it while the aggregation ran.
+    private Long generation;
+
+    // Writes between beginWrite and endWrite. A rebuild's aggregation may
+    // already see such a write's row while its delta is still to come,
+    // so the ledger isn't replaced while any are in flight.
+    private Integer writesInFlight;
+
+    // Last claim taken; a claim older than app.ledger.write-claim-timeout
+    // is taken to be leaked by a writer that died and no longer blocks.
+    private Instant writeClaimedAt;
+
+    // Set only by a rebuild. A document without it holds deltas that
+    // arrived before the first rebuild and is not a complete ledger yet.
+    private Instant rebuiltAt;
+
+    public static String fieldOf(TransactionType type) {
+        return switch (type) {
+            case INCOME -> "income";
+            case EXPENSE -> "expense";
+            case LOAN_TAKEN -> "loanTaken";
+            case LOAN_GIVEN -> "loanGiven";
+            case RECOVERY -> "recovery";
+            case SETTLEMENT -> "settlement";
+        };
+    }
+
+    public static UserBalance of(String userId, Map<TransactionType, BigDecimal> totals) {
+        return UserBalance.builder()
+                .userId(userId)
+                .income(totals.getOrDefault(TransactionType.INCOME, BigDecimal.ZERO))
+                .expense(totals.getOrDefault(TransactionType.EXPENSE, BigDecimal.ZERO))
+                .loanTaken(totals.getOrDefault(TransactionType.LOAN_TAKEN, BigDecimal.ZERO))
+                .loanGiven(totals.getOrDefault(TransactionType.LOAN_GIVEN, BigDecimal.ZERO))
+                .recovery(totals.getOrDefault(TransactionType.RECOVERY, BigDecimal.ZERO))
+                .settlement(totals.getOrDefault(TransactionType.SETTLEMENT, BigDecimal.ZERO))
+                .updatedAt(Instant.now())
+                .rebuiltAt(Instant.now())
+                .build();
+    }
+
+    public boolean isComplete() {
+        return rebuiltAt != null;
+    }
+
+    public Map<TransactionType, BigDecimal> toTotals() {
+        Map<TransactionType, BigDecimal> totals = new EnumMap<>(TransactionType.class);
+        putIfPresent(totals, TransactionType.INCOME, income);
+        putIfPresent(totals, TransactionType.EXPENSE, expense);
+        putIfPresent(totals, TransactionType.LOAN_TAKEN, loanTaken);
+        putIfPresent(totals, TransactionType.LOAN_GIVEN, loanGiven);
+        putIfPresent(totals, TransactionType.RECOVERY, recovery);
+        putIfPresent(totals, TransactionType.SETTLEMENT, settlement);
+        return totals;
+    }
+
+    private static void putIfPresent(Map<TransactionType, BigDecimal> totals,
+                                     TransactionType type,
+                                     BigDecimal value) {
+        if (value != null) {
+            totals.put(type, value);
+        }
+    }
+}
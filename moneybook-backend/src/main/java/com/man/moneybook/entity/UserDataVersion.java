@@ -0,0 +1,28 @@
+package com.man.moneybook.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Counter bumped on every write to a user's transactions. Conditional
+ * GETs compare it instead of re-reading the data. {@code epoch} is set
+ * once when the document is created so a recreated counter never
+ * reissues an old ETag.
+ */
+@Document(collection = "user_data_versions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserDataVersion {
+
+    //  one document per user, keyed by the user's id
+    @Id
+    private String userId;
+
+    private String epoch;
+
+    private long version;
+}
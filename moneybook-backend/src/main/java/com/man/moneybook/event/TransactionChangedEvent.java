@@ -0,0 +1,13 @@
+package com.man.moneybook.event;
+
+import com.man.moneybook.entity.Transaction;
+
+/**
+ * Published after a single transaction is written. {@code before} is the
+ * stored state prior to the write and is null for a new transaction;
+ * {@code after} is null when the transaction was deleted.
+ */
+public record TransactionChangedEvent(String userId,
+                                      Transaction before,
+                                      Transaction after) {
+}
@@ -0,0 +1,12 @@
+package com.man.moneybook.event;
+
+import com.man.moneybook.entity.Transaction;
+
+import java.util.List;
+
+/**
+ * Published once per bulk-import batch with the rows that were inserted.
+ */
+public record TransactionsImportedEvent(String userId,
+                                        List<Transaction> inserted) {
+}
@@ -1,8 +1,10 @@
 package com.man.moneybook.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Map;
 
@@ -15,12 +17,54 @@ public class GlobalExceptionHandler {
                 .body(error(ex.getMessage()));
     }
 
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<?> handleBusy(ServiceBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds(ex.getRetryAfter()))
+                .body(error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<?> handleIdempotencyConflict(IdempotencyConflictException ex) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(ex.getStatus());
+        if (ex.getStatus() == HttpStatus.CONFLICT) {
+            response.header(HttpHeaders.RETRY_AFTER, "1");
+        }
+        return response.body(error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(TransactionConflictException.class)
+    public ResponseEntity<?> handleTransactionConflict(TransactionConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of(
+                        "timestamp", LocalDateTime.now(),
+                        "message", ex.getMessage(),
+                        "current", ex.getCurrent()
+                ));
+    }
+
+    @ExceptionHandler(SyncTokenExpiredException.class)
+    public ResponseEntity<?> handleSyncTokenExpired(SyncTokenExpiredException ex) {
+        return ResponseEntity.status(HttpStatus.GONE)
+                .body(error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<?> handleOptimisticLocking(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(error("Resource was changed by another request"));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleGeneric(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(error("Internal server error"));
     }
 
+    private static String retryAfterSeconds(Duration retryAfter) {
+        return String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+    }
+
     private Map<String, Object> error(String message) {
         return Map.of(
                 "timestamp", LocalDateTime.now(),
@@ -0,0 +1,18 @@
+package com.man.moneybook.exception;
+
+import org.springframework.http.HttpStatus;
+
+// 409 while the first request with the key is still running, 422 on a different body
+public class IdempotencyConflictException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public IdempotencyConflictException(String message, HttpStatus status) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
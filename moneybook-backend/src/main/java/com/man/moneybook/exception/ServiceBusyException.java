@@ -0,0 +1,18 @@
+package com.man.moneybook.exception;
+
+import java.time.Duration;
+
+// Thrown before any work is queued; answered as 503 with Retry-After
+public class ServiceBusyException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceBusyException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,9 @@
+package com.man.moneybook.exception;
+
+// Answered as 410: deletions since the token may be purged, the client must sync from scratch
+public class SyncTokenExpiredException extends RuntimeException {
+
+    public SyncTokenExpiredException() {
+        super("Sync token expired, sync again without since");
+    }
+}
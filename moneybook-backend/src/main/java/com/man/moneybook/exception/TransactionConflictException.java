@@ -0,0 +1,18 @@
+package com.man.moneybook.exception;
+
+import com.man.moneybook.dto.transaction.TransactionResponseDto;
+
+// Answered as 409 with the row's current state so the client can merge and retry
+public class TransactionConflictException extends RuntimeException {
+
+    private final TransactionResponseDto current;
+
+    public TransactionConflictException(TransactionResponseDto current) {
+        super("Transaction was changed by another request");
+        this.current = current;
+    }
+
+    public TransactionResponseDto getCurrent() {
+        return current;
+    }
+}
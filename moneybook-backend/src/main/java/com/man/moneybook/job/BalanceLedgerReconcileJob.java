@@ -0,0 +1,39 @@
+package com.man.moneybook.job;
+
+import com.man.moneybook.service.BalanceLedgerService;
+import com.man.moneybook.service.CounterpartyLedgerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "app.ledger.reconcile.enabled", havingValue = "true")
+public class BalanceLedgerReconcileJob {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(BalanceLedgerReconcileJob.class);
+
+    private final BalanceLedgerService balanceLedgerService;
+    private final CounterpartyLedgerService counterpartyLedgerService;
+
+    public BalanceLedgerReconcileJob(BalanceLedgerService balanceLedgerService,
+                                     CounterpartyLedgerService counterpartyLedgerService) {
+        this.balanceLedgerService = balanceLedgerService;
+        this.counterpartyLedgerService = counterpartyLedgerService;
+    }
+
+    @Scheduled(cron = "${app.ledger.reconcile.cron}")
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        int rebuilt = balanceLedgerService.reconcileAll();
+        log.info("Reconciled {} balance ledgers in {} ms",
+                rebuilt, System.currentTimeMillis() - start);
+
+        start = System.currentTimeMillis();
+        rebuilt = counterpartyLedgerService.reconcileAll();
+        log.info("Reconciled {} counterparty ledgers in {} ms",
+                rebuilt, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,52 @@
+package com.man.moneybook.job;
+
+import com.man.moneybook.entity.MigrationMarker;
+import com.man.moneybook.repository.MigrationMarkerRepository;
+import com.man.moneybook.service.ChangeSequenceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Stamps transactions written before delta sync with sequence 0 while
+ * the context starts, so the first full sync of every client sees them.
+ * Like {@link TombstoneBackfillJob} it records completion in the
+ * migrations collection and is skipped on later starts.
+ */
+@Component
+@ConditionalOnProperty(name = "app.sync.backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeSequenceBackfillJob implements InitializingBean {
+
+    static final String MARKER = "transactions-change-sequence";
+
+    private static final Logger log =
+            LoggerFactory.getLogger(ChangeSequenceBackfillJob.class);
+
+    private final ChangeSequenceService changeSequenceService;
+    private final MigrationMarkerRepository migrationMarkerRepository;
+
+    public ChangeSequenceBackfillJob(ChangeSequenceService changeSequenceService,
+                                     MigrationMarkerRepository migrationMarkerRepository) {
+        this.changeSequenceService = changeSequenceService;
+        this.migrationMarkerRepository = migrationMarkerRepository;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+
+        if (migrationMarkerRepository.existsById(MARKER)) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        long updated = changeSequenceService.backfill();
+        log.info("Sequenced {} existing transactions in {} ms",
+                updated, System.currentTimeMillis() - start);
+
+        migrationMarkerRepository.save(new MigrationMarker(MARKER, Instant.now()));
+    }
+}
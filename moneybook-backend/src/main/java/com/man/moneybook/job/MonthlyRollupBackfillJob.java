@@ -0,0 +1,44 @@
+package com.man.moneybook.job;
+
+import com.man.moneybook.service.MonthlyRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds monthly_rollups from the existing transactions on startup.
+ * Run it once as a command after deploying the rollups:
+ * {@code java -jar moneybook.jar --app.rollups.backfill.enabled=true
+ * --spring.main.web-application-type=none}
+ */
+@Component
+@ConditionalOnProperty(name = "app.rollups.backfill.enabled", havingValue = "true")
+public class MonthlyRollupBackfillJob implements ApplicationRunner {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(MonthlyRollupBackfillJob.class);
+
+    private final MonthlyRollupService monthlyRollupService;
+
+    @Value("${app.rollups.backfill.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.rollups.backfill.batch-size:200}")
+    private int batchSize;
+
+    public MonthlyRollupBackfillJob(MonthlyRollupService monthlyRollupService) {
+        this.monthlyRollupService = monthlyRollupService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.currentTimeMillis();
+        int buckets = monthlyRollupService.backfill(parallelism, Math.max(1, batchSize));
+        log.info("Backfilled {} monthly rollup buckets in {} ms",
+                buckets, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,54 @@
+package com.man.moneybook.job;
+
+import com.man.moneybook.entity.MigrationMarker;
+import com.man.moneybook.repository.MigrationMarkerRepository;
+import com.man.moneybook.service.TombstoneService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Marks transactions written before soft delete as live. Runs while the
+ * context starts, ahead of the web server, because reads only see rows
+ * with {@code deleted: false}. Completion is recorded in the migrations
+ * collection, so only the first start after the upgrade scans; delete
+ * the marker to run it again, e.g. if old instances kept writing during
+ * a rolling deploy.
+ */
+@Component
+@ConditionalOnProperty(name = "app.tombstones.backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class TombstoneBackfillJob implements InitializingBean {
+
+    static final String MARKER = "tombstones-live-flag";
+
+    private static final Logger log =
+            LoggerFactory.getLogger(TombstoneBackfillJob.class);
+
+    private final TombstoneService tombstoneService;
+    private final MigrationMarkerRepository migrationMarkerRepository;
+
+    public TombstoneBackfillJob(TombstoneService tombstoneService,
+                                MigrationMarkerRepository migrationMarkerRepository) {
+        this.tombstoneService = tombstoneService;
+        this.migrationMarkerRepository = migrationMarkerRepository;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+
+        if (migrationMarkerRepository.existsById(MARKER)) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        long updated = tombstoneService.backfillLiveFlag();
+        log.info("Marked {} existing transactions live in {} ms",
+                updated, System.currentTimeMillis() - start);
+
+        migrationMarkerRepository.save(new MigrationMarker(MARKER, Instant.now()));
+    }
+}
@@ -0,0 +1,77 @@
+package com.man.moneybook.job;
+
+import com.man.moneybook.service.TombstoneService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hard-deletes expired tombstones. The purge pauses between batches, so
+ * the cron trigger only hands it to a thread of its own instead of
+ * holding Spring's single scheduler thread for the whole run.
+ */
+@Component
+@ConditionalOnProperty(name = "app.purge.enabled", havingValue = "true")
+public class TombstonePurgeJob {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(TombstonePurgeJob.class);
+
+    private final TombstoneService tombstoneService;
+
+    private final ExecutorService executor =
+            Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "tombstone-purge");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${app.purge.retention:30d}")
+    private Duration retention;
+
+    public TombstonePurgeJob(TombstoneService tombstoneService) {
+        this.tombstoneService = tombstoneService;
+    }
+
+    @Scheduled(cron = "${app.purge.cron}")
+    public void schedule() {
+
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Previous tombstone purge still running, skipping this one");
+            return;
+        }
+
+        executor.execute(() -> {
+            try {
+                purge();
+            } catch (RuntimeException ex) {
+                log.error("Tombstone purge failed", ex);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    void purge() {
+        long start = System.currentTimeMillis();
+        long removed = tombstoneService.purge(Instant.now().minus(retention));
+        log.info("Purged {} deleted transactions in {} ms",
+                removed, System.currentTimeMillis() - start);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
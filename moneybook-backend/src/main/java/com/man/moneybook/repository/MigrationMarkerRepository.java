@@ -0,0 +1,7 @@
+package com.man.moneybook.repository;
+
+import com.man.moneybook.entity.MigrationMarker;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface MigrationMarkerRepository extends MongoRepository<MigrationMarker, String> {
+}
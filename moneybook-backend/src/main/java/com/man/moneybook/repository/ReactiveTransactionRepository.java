@@ -0,0 +1,9 @@
+package com.man.moneybook.repository;
+
+import com.man.moneybook.entity.Transaction;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+// Only instantiated under the "reactive" profile
+public interface ReactiveTransactionRepository
+        extends ReactiveMongoRepository<Transaction, String>, ReactiveTransactionRepositoryCustom {
+}
@@ -0,0 +1,30 @@
+package com.man.moneybook.repository;
+
+import com.man.moneybook.dto.transaction.SyncToken;
+import com.man.moneybook.dto.transaction.TransactionCursor;
+import com.man.moneybook.dto.transaction.TransactionFilter;
+import com.man.moneybook.entity.Transaction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+// Same queries and projection as TransactionRepositoryCustom
+public interface ReactiveTransactionRepositoryCustom {
+
+    // up to limit + 1 rows; the extra one only signals a next page
+    Flux<Transaction> findPage(String userId,
+                               TransactionFilter filter,
+                               TransactionCursor after,
+                               int limit);
+
+    // Cursor-backed, newest first, paced by the subscriber's demand
+    Flux<Transaction> streamAll(String userId, TransactionFilter filter);
+
+    // the row as it was before the update, empty when nothing matched
+    Mono<Transaction> updateIfCurrent(String id, String userId, Long expectedVersion, Transaction changes);
+
+    Mono<Transaction> markDeleted(String id, String userId, Long expectedVersion, long seq, Instant deletedAt);
+
+    Flux<Transaction> findChanges(String userId, SyncToken after, int limit);
+}
@@ -0,0 +1,64 @@
+package com.man.moneybook.repository;
+
+import com.man.moneybook.dto.transaction.SyncToken;
+import com.man.moneybook.dto.transaction.TransactionCursor;
+import com.man.moneybook.dto.transaction.TransactionFilter;
+import com.man.moneybook.entity.Transaction;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+class ReactiveTransactionRepositoryImpl implements ReactiveTransactionRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    ReactiveTransactionRepositoryImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Flux<Transaction> findPage(String userId,
+                                      TransactionFilter filter,
+                                      TransactionCursor after,
+                                      int limit) {
+        return reactiveMongoTemplate.find(
+                TransactionRepositoryImpl.pageQuery(userId, filter, after, limit),
+                Transaction.class);
+    }
+
+    @Override
+    public Flux<Transaction> streamAll(String userId, TransactionFilter filter) {
+        return reactiveMongoTemplate.find(
+                TransactionRepositoryImpl.streamQuery(userId, filter),
+                Transaction.class);
+    }
+
+    @Override
+    public Mono<Transaction> updateIfCurrent(String id, String userId, Long expectedVersion, Transaction changes) {
+        return reactiveMongoTemplate.findAndModify(
+                TransactionRepositoryImpl.currentQuery(id, userId, expectedVersion, changes),
+                TransactionRepositoryImpl.editableFields(changes),
+                FindAndModifyOptions.options().returnNew(false),
+                Transaction.class);
+    }
+
+    @Override
+    public Mono<Transaction> markDeleted(String id, String userId, Long expectedVersion, long seq, Instant deletedAt) {
+        return reactiveMongoTemplate.findAndModify(
+                new Query(TransactionRepositoryImpl.liveRow(id, userId, expectedVersion)),
+                TransactionRepositoryImpl.tombstone(seq, deletedAt),
+                FindAndModifyOptions.options().returnNew(false),
+                Transaction.class);
+    }
+
+    @Override
+    public Flux<Transaction> findChanges(String userId, SyncToken after, int limit) {
+        return reactiveMongoTemplate.find(
+                TransactionRepositoryImpl.changesQuery(userId, after, limit),
+                Transaction.class);
+    }
+}
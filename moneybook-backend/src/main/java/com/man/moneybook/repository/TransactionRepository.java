@@ -1,12 +1,23 @@
 package com.man.moneybook.repository;
 
+import com.man.moneybook.dto.dashboard.TypeTotal;
 import com.man.moneybook.entity.Transaction;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import java.util.List;
 
 public interface TransactionRepository
-        extends MongoRepository<Transaction, String> {
+        extends MongoRepository<Transaction, String>, TransactionRepositoryCustom {
 
+    @Query("{ userId: ?0, deleted: false }")
     List<Transaction> findByUserId(String userId);
+
+    // amount may be stored as string or decimal128, $toDecimal covers both
+    @Aggregation(pipeline = {
+            "{ $match: { userId: ?0, deleted: false } }",
+            "{ $group: { _id: '$type', total: { $sum: { $toDecimal: '$amount' } } } }"
+    })
+    List<TypeTotal> sumAmountByType(String userId);
 }
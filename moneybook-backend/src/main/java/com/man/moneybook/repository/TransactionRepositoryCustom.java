@@ -0,0 +1,37 @@
+package com.man.moneybook.repository;
+
+import com.man.moneybook.dto.transaction.SyncToken;
+import com.man.moneybook.dto.transaction.TransactionCursor;
+import com.man.moneybook.dto.transaction.TransactionFilter;
+import com.man.moneybook.entity.Transaction;
+import org.springframework.data.domain.Slice;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Reads see live rows only. findPage and streamAll load only
+// TransactionResponseDto.FIELDS; userId and notes are left null
+public interface TransactionRepositoryCustom {
+
+    Slice<Transaction> findPage(String userId,
+                                TransactionFilter filter,
+                                TransactionCursor after,
+                                int limit);
+
+    // Cursor-backed, newest first; callers must close the stream
+    Stream<Transaction> streamAll(String userId, TransactionFilter filter);
+
+    // One findAndModify applying the editable fields of changes; returns the
+    // row as it was before, or null if it isn't the user's, isn't at
+    // expectedVersion (when given) or needs a counterparty changes lacks
+    Transaction updateIfCurrent(String id, String userId, Long expectedVersion, Transaction changes);
+
+    // Tombstones a live row in one findAndModify; returns it as it was
+    // before, or null under the same conditions as updateIfCurrent
+    Transaction markDeleted(String id, String userId, Long expectedVersion, long seq, Instant deletedAt);
+
+    // Delta sync: up to limit + 1 rows past the token in (updatedSeq, _id)
+    // order, tombstones included; live rows only when after is null
+    List<Transaction> findChanges(String userId, SyncToken after, int limit);
+}
@@ -0,0 +1,259 @@
+package com.man.moneybook.repository;
+
+import com.man.moneybook.dto.transaction.SyncToken;
+import com.man.moneybook.dto.transaction.TransactionCursor;
+import com.man.moneybook.dto.transaction.TransactionFilter;
+import com.man.moneybook.dto.transaction.TransactionResponseDto;
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.util.TransactionRules;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+
+    static final Sort NEWEST_FIRST = Sort.by(
+            Sort.Order.desc("transactionDate"),
+            Sort.Order.desc("_id")
+    );
+
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    // read by TransactionChanges on top of the response fields
+    private static final String[] SYNC_FIELDS = {"deleted", "updatedSeq", "updatedAt"};
+
+    private final MongoTemplate mongoTemplate;
+
+    // documents read per call; call timing comes from spring.data.repository.invocations
+    private final DistributionSummary pageRows;
+    private final DistributionSummary streamRows;
+    private final DistributionSummary changesRows;
+
+    TransactionRepositoryImpl(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.pageRows = rowsRead(meterRegistry, "page");
+        this.streamRows = rowsRead(meterRegistry, "stream");
+        this.changesRows = rowsRead(meterRegistry, "changes");
+    }
+
+    private static DistributionSummary rowsRead(MeterRegistry meterRegistry, String query) {
+        return DistributionSummary.builder("moneybook.transactions.rows")
+                .description("Transaction documents read per repository call")
+                .baseUnit("rows")
+                .tag("query", query)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Keyset pagination: seeks past the cursor instead of skipping rows,
+     * so every page costs the same however deep the client scrolls.
+     */
+    @Override
+    public Slice<Transaction> findPage(String userId,
+                                       TransactionFilter filter,
+                                       TransactionCursor after,
+                                       int limit) {
+
+        Query query = pageQuery(userId, filter, after, limit);
+
+        List<Transaction> rows = mongoTemplate.find(query, Transaction.class);
+        pageRows.record(rows.size());
+
+        boolean hasNext = rows.size() > limit;
+        if (hasNext) {
+            rows = rows.subList(0, limit);
+        }
+
+        return new SliceImpl<>(rows, PageRequest.of(0, limit, NEWEST_FIRST), hasNext);
+    }
+
+    @Override
+    public Stream<Transaction> streamAll(String userId, TransactionFilter filter) {
+
+        Query query = streamQuery(userId, filter);
+
+        LongAdder read = new LongAdder();
+        return mongoTemplate.stream(query, Transaction.class)
+                .peek(row -> read.increment())
+                .onClose(() -> streamRows.record(read.sum()));
+    }
+
+    @Override
+    public Transaction updateIfCurrent(String id, String userId, Long expectedVersion, Transaction changes) {
+        return mongoTemplate.findAndModify(
+                currentQuery(id, userId, expectedVersion, changes),
+                editableFields(changes),
+                FindAndModifyOptions.options().returnNew(false),
+                Transaction.class);
+    }
+
+    @Override
+    public Transaction markDeleted(String id, String userId, Long expectedVersion, long seq, Instant deletedAt) {
+        return mongoTemplate.findAndModify(
+                new Query(liveRow(id, userId, expectedVersion)),
+                tombstone(seq, deletedAt),
+                FindAndModifyOptions.options().returnNew(false),
+                Transaction.class);
+    }
+
+    @Override
+    public List<Transaction> findChanges(String userId, SyncToken after, int limit) {
+
+        List<Transaction> rows = mongoTemplate.find(changesQuery(userId, after, limit), Transaction.class);
+        changesRows.record(rows.size());
+        return rows;
+    }
+
+    // The type check stands in for reading the row first: a blank
+    // counterparty only matches types that don't need one.
+    static Query currentQuery(String id, String userId, Long expectedVersion, Transaction changes) {
+
+        Criteria criteria = liveRow(id, userId, expectedVersion);
+        if (TransactionRules.isBlank(changes.getCounterparty())) {
+            criteria.and("type").nin(TransactionRules.COUNTERPARTY_REQUIRED);
+        }
+        return new Query(criteria);
+    }
+
+    static Criteria liveRow(String id, String userId, Long expectedVersion) {
+
+        Criteria criteria = where("_id").is(id).and("userId").is(userId).and("deleted").is(false);
+        if (expectedVersion != null) {
+            criteria.and("version").is(expectedVersion);
+        }
+        return criteria;
+    }
+
+    static Update tombstone(long seq, Instant deletedAt) {
+        return new Update()
+                .set("deleted", true)
+                .set("deletedAt", deletedAt)
+                .set("updatedSeq", seq)
+                .set("updatedAt", deletedAt)
+                .inc("version", 1);
+    }
+
+    // type and userId are never editable
+    static Update editableFields(Transaction changes) {
+        return new Update()
+                .set("category", changes.getCategory())
+                .set("amount", changes.getAmount())
+                .set("description", changes.getDescription())
+                .set("counterparty", changes.getCounterparty())
+                .set("transactionDate", changes.getTransactionDate())
+                .set("updatedSeq", changes.getUpdatedSeq())
+                .set("updatedAt", changes.getUpdatedAt())
+                .inc("version", 1);
+    }
+
+    // seeks past (updatedSeq, _id); only legacy rows share a sequence (0)
+    static Query changesQuery(String userId, SyncToken after, int limit) {
+
+        Criteria criteria = where("userId").is(userId);
+        if (after == null) {
+            criteria.and("deleted").is(false);
+        } else {
+            criteria.orOperator(
+                    where("updatedSeq").gt(after.seq()),
+                    where("updatedSeq").is(after.seq()).and("_id").gt(after.id()));
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by("updatedSeq", "_id"))
+                .limit(limit + 1);
+        query.fields().include(TransactionResponseDto.FIELDS).include(SYNC_FIELDS);
+        return query;
+    }
+
+    // limit + 1 rows, so the caller can tell whether another page follows
+    static Query pageQuery(String userId,
+                           TransactionFilter filter,
+                           TransactionCursor after,
+                           int limit) {
+
+        List<Criteria> criteria = new ArrayList<>();
+        criteria.add(where("userId").is(userId));
+        criteria.add(where("deleted").is(false));
+        criteria.addAll(filterCriteria(filter));
+
+        if (after != null) {
+            criteria.add(seekPast(after));
+        }
+
+        Query query = new Query(new Criteria().andOperator(criteria))
+                .with(NEWEST_FIRST)
+                .limit(limit + 1);
+        query.fields().include(TransactionResponseDto.FIELDS);
+        return query;
+    }
+
+    static Query streamQuery(String userId, TransactionFilter filter) {
+
+        List<Criteria> criteria = new ArrayList<>();
+        criteria.add(where("userId").is(userId));
+        criteria.add(where("deleted").is(false));
+        criteria.addAll(filterCriteria(filter));
+
+        Query query = new Query(new Criteria().andOperator(criteria))
+                .with(NEWEST_FIRST)
+                .cursorBatchSize(STREAM_BATCH_SIZE);
+        query.fields().include(TransactionResponseDto.FIELDS);
+        return query;
+    }
+
+    static List<Criteria> filterCriteria(TransactionFilter filter) {
+
+        List<Criteria> criteria = new ArrayList<>();
+        if (filter == null) {
+            return criteria;
+        }
+
+        if (filter.getType() != null) {
+            criteria.add(where("type").is(filter.getType()));
+        }
+        if (filter.getCategory() != null && !filter.getCategory().isBlank()) {
+            criteria.add(where("category").is(filter.getCategory()));
+        }
+        if (filter.getCounterparty() != null && !filter.getCounterparty().isBlank()) {
+            criteria.add(where("counterparty").is(filter.getCounterparty()));
+        }
+        if (filter.getFrom() != null) {
+            criteria.add(where("transactionDate").gte(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            criteria.add(where("transactionDate").lte(filter.getTo()));
+        }
+        return criteria;
+    }
+
+    // Rows strictly after the cursor in (transactionDate desc, _id desc);
+    // documents without a date sort last in descending order.
+    private static Criteria seekPast(TransactionCursor after) {
+
+        if (after.transactionDate() == null) {
+            return where("transactionDate").is(null).and("_id").lt(after.id());
+        }
+
+        return new Criteria().orOperator(
+                where("transactionDate").lt(after.transactionDate()),
+                where("transactionDate").is(after.transactionDate()).and("_id").lt(after.id()),
+                where("transactionDate").is(null)
+        );
+    }
+}
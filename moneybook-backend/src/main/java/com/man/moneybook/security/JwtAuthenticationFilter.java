@@ -1,25 +1,48 @@
 package com.man.moneybook.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final UserDetailsServiceImpl userDetailsService;
+    private final PrincipalCache principalCache;
+
+    // signature check (or token cache hit) plus principal lookup
+    private final Timer validTokens;
+    private final Timer invalidTokens;
+    private final Timer rejectedTokens;
 
     public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider,
-                                   UserDetailsServiceImpl userDetailsService) {
+                                   UserDetailsServiceImpl userDetailsService,
+                                   PrincipalCache principalCache,
+                                   MeterRegistry meterRegistry) {
         this.jwtTokenProvider = jwtTokenProvider;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.validTokens = validationTimer(meterRegistry, "valid");
+        this.invalidTokens = validationTimer(meterRegistry, "invalid");
+        this.rejectedTokens = validationTimer(meterRegistry, "rejected");
+    }
+
+    private static Timer validationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("moneybook.jwt.validation")
+                .description("Bearer token validation in the servlet filter")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     @Override
@@ -33,18 +56,40 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
 
-            if (jwtTokenProvider.validateToken(token)) {
-                String username = jwtTokenProvider.getUsername(token);
-                UserDetails userDetails =
-                        userDetailsService.loadUserByUsername(username);
+            long start = System.nanoTime();
+            Claims claims = jwtTokenProvider.parseClaims(token).orElse(null);
+            UserPrincipal principal = claims != null ? resolve(claims) : null;
 
+            Timer timer = claims == null ? invalidTokens
+                    : principal == null ? rejectedTokens
+                    : validTokens;
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            if (principal != null) {
                 UsernamePasswordAuthenticationToken auth =
                         new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
+                                principal, null, principal.getAuthorities());
 
                 SecurityContextHolder.getContext().setAuthentication(auth);
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    // Cached by email; a token minted for a different user id than the
+    // one now registered under that email is ignored.
+    private UserPrincipal resolve(Claims claims) {
+        try {
+            UserPrincipal principal = principalCache.get(
+                    claims.getSubject(), userDetailsService::loadUserByUsername);
+
+            String tokenUserId = claims.get(JwtTokenProvider.USER_ID_CLAIM, String.class);
+            if (tokenUserId != null && !tokenUserId.equals(principal.getId())) {
+                return null;
+            }
+            return principal;
+        } catch (UsernameNotFoundException ex) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,73 @@
+package com.man.moneybook.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * WebFlux port of {@link JwtAuthenticationFilter}. Token parsing and
+ * cached principals stay on the event loop; only a principal-cache miss
+ * goes to the blocking users lookup, on the bounded elastic scheduler.
+ * <p>
+ * Not a bean on purpose: WebFlux would also register it as a global filter.
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final PrincipalCache principalCache;
+
+    public JwtAuthenticationWebFilter(JwtTokenProvider jwtTokenProvider,
+                                      UserDetailsServiceImpl userDetailsService,
+                                      PrincipalCache principalCache) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+
+        String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (header == null || !header.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        return jwtTokenProvider.parseClaims(header.substring(7))
+                .map(this::resolve)
+                .orElseGet(Mono::empty)
+                .map(principal -> new UsernamePasswordAuthenticationToken(
+                        principal, null, principal.getAuthorities()))
+                .flatMap(auth -> chain.filter(exchange)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth))
+                        .thenReturn(Boolean.TRUE))
+                .switchIfEmpty(Mono.defer(() -> chain.filter(exchange).thenReturn(Boolean.TRUE)))
+                .then();
+    }
+
+    // Same rule as the servlet filter: the uid claim must match the user
+    // currently registered under the token's email.
+    private Mono<UserPrincipal> resolve(Claims claims) {
+
+        String email = claims.getSubject();
+        UserPrincipal cached = principalCache.getIfPresent(email);
+
+        Mono<UserPrincipal> principal = cached != null
+                ? Mono.just(cached)
+                : Mono.fromCallable(() -> principalCache.get(email, userDetailsService::loadUserByUsername))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .onErrorResume(UsernameNotFoundException.class, ex -> Mono.empty());
+
+        String tokenUserId = claims.get(JwtTokenProvider.USER_ID_CLAIM, String.class);
+
+        return principal.filter(p -> tokenUserId == null || tokenUserId.equals(p.getId()));
+    }
+}
@@ -1,47 +1,62 @@
 package com.man.moneybook.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.man.moneybook.config.JwtConfig;
-import com.man.moneybook.entity.User;
-import com.man.moneybook.repository.UserRepository;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtTokenProvider {
 
+    public static final String USER_ID_CLAIM = "uid";
+
     private final SecretKey key;
     private final JwtConfig jwtConfig;
-    private final UserRepository userRepository;
+
+    // immutable and thread-safe, so built once instead of per call
+    private final JwtParser parser;
+
+    // verified claims keyed by SHA-256 of the token, kept until "exp"
+    private final Cache<String, Claims> verifiedTokens;
 
     public JwtTokenProvider(
             JwtConfig jwtConfig,
-            UserRepository userRepository
+            @Value("${app.security.token-cache.max-size:10000}") long tokenCacheSize
     ) {
         this.jwtConfig = jwtConfig;
-        this.userRepository = userRepository;
         this.key = Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes());
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheSize)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
 
-        UserDetails userDetails =
-                (UserDetails) authentication.getPrincipal();
-
-        User user = userRepository
-                .findByEmail(userDetails.getUsername())
-                .orElseThrow();
+        UserPrincipal user =
+                (UserPrincipal) authentication.getPrincipal();
 
         Date now = new Date();
         Date expiry = new Date(now.getTime() + jwtConfig.getExpiration());
 
         return Jwts.builder()
                 .setSubject(user.getEmail())
+                .claim(USER_ID_CLAIM, user.getId())
                 .claim("firstName", user.getFirstName())
                 .claim("lastName", user.getLastName())
                 .setIssuedAt(now)
@@ -50,24 +65,62 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public String getUsername(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
-    }
+    /**
+     * Verifies the signature and expiry once and returns the claims, or
+     * empty if the token is invalid. Repeat presentations of a token are
+     * served from the cache until the token expires.
+     */
+    public Optional<Claims> parseClaims(String token) {
+
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        String cacheKey = sha256(token);
+        Claims cached = verifiedTokens.getIfPresent(cacheKey);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
 
-    public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parse(token);
-            return true;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(cacheKey, claims);
+            }
+            return Optional.of(claims);
         } catch (JwtException | IllegalArgumentException ex) {
-            return false;
+            return Optional.empty();
+        }
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long millisLeft = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millisLeft));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
@@ -0,0 +1,79 @@
+package com.man.moneybook.security;
+
+import com.man.moneybook.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password work (Argon2 verify and encode) on a small fixed pool
+ * with a bounded admission queue. Each hash holds its memory cost only
+ * while it runs, so the pool size caps both CPU and heap spent on auth.
+ * The request thread is released while the work waits. When the queue
+ * is full, submit fails at once and the caller gets a 503; requests are
+ * never parked.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final Counter rejected;
+    private final Duration retryAfter;
+
+    public PasswordHashingExecutor(@Value("${app.auth.hashing.threads:2}") int threads,
+                                   @Value("${app.auth.hashing.queue-capacity:32}") int queueCapacity,
+                                   @Value("${app.auth.hashing.retry-after:1s}") Duration retryAfter,
+                                   MeterRegistry meterRegistry) {
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "auth-hashing-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // executor.queued / executor.active / executor.idle (time spent queued)
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "auth.hashing");
+        this.rejected = Counter.builder("moneybook.auth.hashing.rejected")
+                .description("Auth requests refused because the hashing queue was full")
+                .register(meterRegistry);
+        this.retryAfter = retryAfter;
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(work, executor);
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new ServiceBusyException("Too many sign-in requests, try again shortly", retryAfter);
+        }
+    }
+
+    public int queued() {
+        return pool.getQueue().size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,49 @@
+package com.man.moneybook.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-limited cache of resolved principals keyed by email, so
+ * authenticated requests don't hit the users collection. Entries are
+ * evicted whenever the user document changes.
+ */
+@Component
+public class PrincipalCache {
+
+    private final Cache<String, UserPrincipal> cache;
+
+    public PrincipalCache(
+            @Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+            @Value("${app.security.principal-cache.ttl:5m}") Duration ttl
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public UserPrincipal get(String email, Function<String, UserPrincipal> loader) {
+        return cache.get(email, loader);
+    }
+
+    // null on a miss, for callers that must not load on the current thread
+    public UserPrincipal getIfPresent(String email) {
+        return cache.getIfPresent(email);
+    }
+
+    public void evict(String email) {
+        if (email != null) {
+            cache.invalidate(email);
+        }
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,65 @@
+package com.man.moneybook.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs right after {@link JwtAuthenticationFilter}, so authenticated
+ * requests are limited per user and /auth/** per client IP. Not a bean on
+ * purpose: as a @Component it would also be registered with the servlet
+ * container and run before the JWT filter, with no user to key on.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String BODY = "{\"message\":\"Too many requests\"}";
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        long wait = request.getRequestURI().startsWith(request.getContextPath() + "/auth/")
+                ? rateLimiter.tryAcquire(RateLimiter.Group.AUTH, request.getRemoteAddr())
+                : rateLimiter.tryAcquire(RateLimiter.Group.API, userKey(request));
+
+        if (wait > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(RateLimiter.retryAfterSeconds(wait)));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(BODY);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private static String userKey(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof UserPrincipal principal
+                ? principal.getId()
+                : request.getRemoteAddr();
+    }
+}
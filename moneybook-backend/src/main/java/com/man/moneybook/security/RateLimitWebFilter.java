@@ -0,0 +1,76 @@
+package com.man.moneybook.security;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * WebFlux counterpart of {@link RateLimitFilter}, added right after
+ * {@link JwtAuthenticationWebFilter}.
+ */
+public class RateLimitWebFilter implements WebFilter {
+
+    private static final byte[] BODY = "{\"message\":\"Too many requests\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitWebFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() == HttpMethod.OPTIONS) {
+            return chain.filter(exchange);
+        }
+
+        if (request.getPath().pathWithinApplication().value().startsWith("/auth/")) {
+            return proceed(exchange, chain,
+                    rateLimiter.tryAcquire(RateLimiter.Group.AUTH, clientIp(request)));
+        }
+
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(auth -> auth.getPrincipal() instanceof UserPrincipal)
+                .map(auth -> ((UserPrincipal) auth.getPrincipal()).getId())
+                .defaultIfEmpty(clientIp(request))
+                .flatMap(key -> proceed(exchange, chain,
+                        rateLimiter.tryAcquire(RateLimiter.Group.API, key)));
+    }
+
+    private static Mono<Void> proceed(ServerWebExchange exchange, WebFilterChain chain, long wait) {
+
+        if (wait <= 0) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(RateLimiter.retryAfterSeconds(wait)));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer body = response.bufferFactory().wrap(BODY);
+        return response.writeWith(Mono.just(body));
+    }
+
+    private static String clientIp(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        return remote != null && remote.getAddress() != null
+                ? remote.getAddress().getHostAddress()
+                : "unknown";
+    }
+}
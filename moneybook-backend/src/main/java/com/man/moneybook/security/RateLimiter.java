@@ -0,0 +1,116 @@
+package com.man.moneybook.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process token buckets, one per (group, key). A bucket is a single
+ * AtomicLong using GCRA (the virtual-scheduling form of a token bucket).
+ * The long holds the time at which the bucket will be full again. A check
+ * is one CAS and allocates nothing once the bucket exists. Buckets live
+ * in Caffeine's striped map and are dropped after
+ * {@code app.rate-limit.idle-timeout} without traffic. By then they have
+ * refilled, so dropping them changes no decision.
+ */
+@Component
+public class RateLimiter {
+
+    public enum Group {
+        // /auth/**, keyed by client IP
+        AUTH,
+        // everything else, keyed by user id (client IP when anonymous)
+        API
+    }
+
+    private final boolean enabled;
+    private final Map<Group, Limit> limits = new EnumMap<>(Group.class);
+
+    public RateLimiter(@Value("${app.rate-limit.enabled:true}") boolean enabled,
+                       @Value("${app.rate-limit.auth.burst:10}") int authBurst,
+                       @Value("${app.rate-limit.auth.per-second:0.5}") double authPerSecond,
+                       @Value("${app.rate-limit.api.burst:100}") int apiBurst,
+                       @Value("${app.rate-limit.api.per-second:20}") double apiPerSecond,
+                       @Value("${app.rate-limit.idle-timeout:10m}") Duration idleTimeout,
+                       @Value("${app.rate-limit.max-keys:100000}") long maxKeys,
+                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        limits.put(Group.AUTH, new Limit(Group.AUTH, authBurst, authPerSecond, idleTimeout, maxKeys, meterRegistry));
+        limits.put(Group.API, new Limit(Group.API, apiBurst, apiPerSecond, idleTimeout, maxKeys, meterRegistry));
+    }
+
+    /**
+     * Takes one token for {@code key}.
+     *
+     * @return 0 if the request may proceed, otherwise how long until it would
+     *         be allowed, in nanoseconds
+     */
+    public long tryAcquire(Group group, String key) {
+        return enabled ? limits.get(group).tryAcquire(key) : 0;
+    }
+
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, Duration.ofNanos(waitNanos).toSeconds() + 1);
+    }
+
+    private static final class Limit {
+
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final Cache<String, AtomicLong> buckets;
+        private final Counter allowed;
+        private final Counter limited;
+
+        private Limit(Group group, int burst, double perSecond, Duration idleTimeout,
+                      long maxKeys, MeterRegistry meterRegistry) {
+
+            this.intervalNanos = (long) (1_000_000_000L / perSecond);
+            this.burstNanos = intervalNanos * Math.max(1, burst);
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(idleTimeout)
+                    .build();
+
+            String tag = group.name().toLowerCase();
+            this.allowed = Counter.builder("moneybook.ratelimit.requests")
+                    .tag("group", tag).tag("outcome", "allowed")
+                    .register(meterRegistry);
+            this.limited = Counter.builder("moneybook.ratelimit.requests")
+                    .tag("group", tag).tag("outcome", "limited")
+                    .register(meterRegistry);
+            Gauge.builder("moneybook.ratelimit.buckets", buckets, Cache::estimatedSize)
+                    .tag("group", tag)
+                    .description("Rate limit buckets currently tracked")
+                    .register(meterRegistry);
+        }
+
+        private long tryAcquire(String key) {
+
+            long now = System.nanoTime();
+            AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(System.nanoTime()));
+
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + intervalNanos;
+                long wait = next - now - burstNanos;
+                if (wait > 0) {
+                    limited.increment();
+                    return wait;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    allowed.increment();
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.man.moneybook.security;
+
+import com.man.moneybook.entity.User;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops cached principals when a user is saved (e.g. password change)
+ * or deleted, so stale credentials never outlive the write.
+ */
+@Component
+public class UserCacheEvictionListener extends AbstractMongoEventListener<User> {
+
+    private final PrincipalCache principalCache;
+
+    public UserCacheEvictionListener(PrincipalCache principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<User> event) {
+        principalCache.evict(event.getSource().getEmail());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<User> event) {
+        // only the delete filter is known here, not the email
+        principalCache.evictAll();
+    }
+}
@@ -6,26 +6,53 @@ import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository,
+                                  PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
-    public UserDetails loadUserByUsername(String email)
+    public UserPrincipal loadUserByUsername(String email)
             throws UsernameNotFoundException {
 
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() ->
                         new UsernameNotFoundException("User not found"));
 
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getEmail())
-                .password(user.getPassword())
-                .authorities("USER")
-                .build();
+        return new UserPrincipal(
+                user.getId(),
+                user.getEmail(),
+                user.getPassword(),
+                user.getFirstName(),
+                user.getLastName()
+        );
+    }
+
+    // Called by DaoAuthenticationProvider after a successful login whose
+    // stored hash was made with weaker encoder parameters than today's.
+    @Override
+    public UserDetails updatePassword(UserDetails details, String newPassword) {
+
+        User user = userRepository.findByEmail(details.getUsername())
+                .orElseThrow(() ->
+                        new UsernameNotFoundException("User not found"));
+
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        principalCache.evict(user.getEmail());
+
+        return new UserPrincipal(
+                user.getId(),
+                user.getEmail(),
+                newPassword,
+                user.getFirstName(),
+                user.getLastName()
+        );
     }
 }
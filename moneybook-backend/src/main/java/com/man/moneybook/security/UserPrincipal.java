@@ -0,0 +1,68 @@
+package com.man.moneybook.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated user as held in the security context. Carries the Mongo
+ * user id so request handlers never need to look the user up again.
+ */
+@Getter
+public class UserPrincipal implements UserDetails {
+
+    private static final List<GrantedAuthority> AUTHORITIES =
+            List.of(new SimpleGrantedAuthority("USER"));
+
+    private final String id;
+    private final String email;
+    private final String password;
+    private final String firstName;
+    private final String lastName;
+
+    public UserPrincipal(String id,
+                         String email,
+                         String password,
+                         String firstName,
+                         String lastName) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return AUTHORITIES;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
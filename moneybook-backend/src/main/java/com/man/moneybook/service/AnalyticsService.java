@@ -0,0 +1,19 @@
+package com.man.moneybook.service;
+
+import com.man.moneybook.dto.analytics.CategorySpend;
+import com.man.moneybook.dto.analytics.CounterpartyBalance;
+import com.man.moneybook.dto.analytics.MonthlyFlow;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AnalyticsService {
+
+    List<MonthlyFlow> monthlyFlow(String userId, LocalDate from, LocalDate to);
+
+    List<CategorySpend> spendByCategory(String userId, LocalDate from, LocalDate to);
+
+    List<CounterpartyBalance> counterpartyBalances(String userId);
+
+    void evict(String userId);
+}
@@ -0,0 +1,27 @@
+package com.man.moneybook.service;
+
+import com.man.moneybook.entity.UserBalance;
+import com.man.moneybook.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface BalanceLedgerService {
+
+    // Taken before a transaction write and released, in a finally, once
+    // its delta is applied and its event published; rebuilds of the
+    // ledger and of the monthly rollups wait for claims to clear.
+    void beginWrite(String userId);
+
+    void endWrite(String userId);
+
+    boolean hasWritesInFlight(List<String> userIds);
+
+    void applyDelta(String userId, TransactionType type, BigDecimal delta);
+
+    UserBalance getBalance(String userId);
+
+    UserBalance rebuild(String userId);
+
+    int reconcileAll();
+}
@@ -0,0 +1,10 @@
+package com.man.moneybook.service;
+
+public interface ChangeSequenceService {
+
+    long next(String userId);
+
+    long reserve(String userId, int count);
+
+    long backfill();
+}
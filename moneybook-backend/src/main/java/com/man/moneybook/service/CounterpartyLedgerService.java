@@ -0,0 +1,21 @@
+package com.man.moneybook.service;
+
+import com.man.moneybook.entity.CounterpartyLedger;
+import com.man.moneybook.entity.Transaction;
+
+import java.util.List;
+
+public interface CounterpartyLedgerService {
+
+    void applyChange(Transaction before, Transaction after);
+
+    void applyInserted(String userId, List<Transaction> inserted);
+
+    List<CounterpartyLedger> findAll(String userId);
+
+    List<CounterpartyLedger> findOpen(String userId, boolean owedToUser, int limit);
+
+    int rebuild(String userId);
+
+    int reconcileAll();
+}
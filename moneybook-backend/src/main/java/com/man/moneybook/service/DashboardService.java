@@ -0,0 +1,7 @@
+package com.man.moneybook.service;
+
+import com.man.moneybook.dto.dashboard.DashboardSummary;
+
+public interface DashboardService {
+    DashboardSummary getSummary(String userId);
+}
@@ -0,0 +1,8 @@
+package com.man.moneybook.service;
+
+public interface DataVersionService {
+
+    String etag(String userId, String variant);
+
+    void bump(String userId);
+}
@@ -0,0 +1,14 @@
+package com.man.moneybook.service;
+
+import com.man.moneybook.dto.transaction.TransactionResponseDto;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    // Runs write at most once per (userId, key); repeats get the first response
+    TransactionResponseDto execute(String userId,
+                                   String key,
+                                   Object request,
+                                   Supplier<TransactionResponseDto> write);
+}
@@ -0,0 +1,20 @@
+package com.man.moneybook.service;
+
+import com.man.moneybook.entity.MonthlyRollup;
+import com.man.moneybook.entity.Transaction;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public interface MonthlyRollupService {
+
+    void applyChange(Transaction before, Transaction after);
+
+    void applyInserted(String userId, List<Transaction> inserted);
+
+    List<MonthlyRollup> findRange(String userId, YearMonth from, YearMonth to);
+
+    int rebuild(String userId);
+
+    int backfill(int parallelism, int batchSize);
+}
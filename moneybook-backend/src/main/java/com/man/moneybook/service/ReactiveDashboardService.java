@@ -0,0 +1,9 @@
+package com.man.moneybook.service;
+
+import com.man.moneybook.dto.dashboard.DashboardSummary;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveDashboardService {
+
+    Mono<DashboardSummary> getSummary(String userId);
+}
@@ -0,0 +1,8 @@
+package com.man.moneybook.service;
+
+import reactor.core.publisher.Mono;
+
+public interface ReactiveDataVersionService {
+
+    Mono<String> etag(String userId, String variant);
+}
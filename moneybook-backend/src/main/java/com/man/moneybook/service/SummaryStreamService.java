@@ -0,0 +1,10 @@
+package com.man.moneybook.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface SummaryStreamService {
+
+    SseEmitter subscribe(String userId);
+
+    int subscriberCount();
+}
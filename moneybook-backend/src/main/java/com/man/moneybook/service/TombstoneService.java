@@ -0,0 +1,10 @@
+package com.man.moneybook.service;
+
+import java.time.Instant;
+
+public interface TombstoneService {
+
+    long backfillLiveFlag();
+
+    long purge(Instant deletedBefore);
+}
@@ -0,0 +1,15 @@
+package com.man.moneybook.service;
+
+import com.man.moneybook.dto.transaction.TransactionFilter;
+import com.man.moneybook.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface TransactionExportService {
+
+    long export(String userId,
+                TransactionFilter filter,
+                ExportFormat format,
+                OutputStream out) throws IOException;
+}
@@ -0,0 +1,13 @@
+package com.man.moneybook.service;
+
+import com.man.moneybook.dto.transaction.BulkImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface TransactionImportService {
+
+    BulkImportResult importJson(String userId, InputStream body) throws IOException;
+
+    BulkImportResult importCsv(String userId, InputStream body) throws IOException;
+}
@@ -1,5 +1,6 @@
 package com.man.moneybook.service;
 
+import com.man.moneybook.dto.dashboard.DashboardSummary;
 import com.man.moneybook.entity.Transaction;
 
 import java.math.BigDecimal;
@@ -9,7 +10,9 @@ public interface TransactionService {
 
     Transaction save(Transaction transaction);
 
-    List<Transaction> findByUserId(Long userId);
+    List<Transaction> findByUserId(String userId);
+
+    DashboardSummary summarize(List<Transaction> transactions);
 
     BigDecimal calculateBalance(List<Transaction> transactions);
 
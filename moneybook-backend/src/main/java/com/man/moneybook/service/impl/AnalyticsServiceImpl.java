@@ -0,0 +1,300 @@
+package com.man.moneybook.service.impl;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.man.moneybook.dto.analytics.CategorySpend;
+import com.man.moneybook.dto.analytics.CounterpartyBalance;
+import com.man.moneybook.dto.analytics.MonthlyFlow;
+import com.man.moneybook.entity.MonthlyRollup;
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.enums.TransactionType;
+import com.man.moneybook.event.TransactionChangedEvent;
+import com.man.moneybook.event.TransactionsImportedEvent;
+import com.man.moneybook.service.AnalyticsService;
+import com.man.moneybook.service.CounterpartyLedgerService;
+import com.man.moneybook.service.MonthlyRollupService;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static com.man.moneybook.util.MongoValues.timezone;
+import static com.man.moneybook.util.MongoValues.toBigDecimal;
+import static com.man.moneybook.util.MongoValues.toDate;
+
+/**
+ * Rollups cached per user until that user's next write. Whole-month
+ * ranges read the precomputed monthly_rollups buckets; anything else
+ * falls back to an aggregation over the transactions collection.
+ */
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private static final String INCOME = TransactionType.INCOME.name();
+    private static final String EXPENSE = TransactionType.EXPENSE.name();
+
+    private final MongoTemplate mongoTemplate;
+    private final MonthlyRollupService monthlyRollupService;
+    private final CounterpartyLedgerService counterpartyLedgerService;
+
+    // A write moves the user to a fresh generation, orphaning their old
+    // results until they age out. A user dropped from this cache also
+    // comes back on a fresh generation, so eviction here is always safe.
+    private final AtomicLong generationCounter = new AtomicLong();
+    private final Cache<String, Long> generations;
+
+    // (userId, generation, query) -> result, bounded in entries rather than users
+    private final AsyncCache<ResultKey, Object> results;
+
+    public AnalyticsServiceImpl(MongoTemplate mongoTemplate,
+                                MonthlyRollupService monthlyRollupService,
+                                CounterpartyLedgerService counterpartyLedgerService,
+                                @Value("${app.analytics.cache.max-users:5000}") long maxUsers,
+                                @Value("${app.analytics.cache.max-entries:50000}") long maxEntries,
+                                @Value("${app.analytics.cache.ttl:10m}") Duration ttl) {
+        this.mongoTemplate = mongoTemplate;
+        this.monthlyRollupService = monthlyRollupService;
+        this.counterpartyLedgerService = counterpartyLedgerService;
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(ttl)
+                .build();
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+    }
+
+    @Override
+    public List<MonthlyFlow> monthlyFlow(String userId, LocalDate from, LocalDate to) {
+        return cached(userId, "monthly|" + from + "|" + to, () -> {
+
+            if (monthAligned(from, to)) {
+                return monthlyFlowFromRollups(userId, from, to);
+            }
+
+            Document match = userMatch(userId, from, to)
+                    .append("type", new Document("$in", List.of(INCOME, EXPENSE)));
+
+            Document group = new Document("$group", new Document()
+                    .append("_id", new Document()
+                            .append("month", new Document("$dateTrunc", new Document()
+                                    .append("date", "$transactionDate")
+                                    .append("unit", "month")
+                                    .append("timezone", timezone())))
+                            .append("type", "$type"))
+                    .append("total", sumOfAmount()));
+
+            Map<YearMonth, BigDecimal[]> months = new LinkedHashMap<>();
+            for (Document row : aggregate(
+                    new Document("$match", match),
+                    group,
+                    new Document("$sort", new Document("_id.month", 1)))) {
+
+                Document id = row.get("_id", Document.class);
+                Date month = id.getDate("month");
+                if (month == null) {
+                    continue;
+                }
+
+                BigDecimal[] flow = months.computeIfAbsent(
+                        YearMonth.from(month.toInstant().atZone(ZoneId.systemDefault())),
+                        key -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+                flow[INCOME.equals(id.getString("type")) ? 0 : 1] = toBigDecimal(row.get("total"));
+            }
+
+            List<MonthlyFlow> result = new ArrayList<>(months.size());
+            months.forEach((month, flow) -> result.add(new MonthlyFlow(
+                    month.toString(), flow[0], flow[1], flow[0].subtract(flow[1]))));
+            return result;
+        });
+    }
+
+    @Override
+    public List<CategorySpend> spendByCategory(String userId, LocalDate from, LocalDate to) {
+        return cached(userId, "categories|" + from + "|" + to, () -> {
+
+            // the unbounded aggregation also counts undated rows, which have no bucket
+            if ((from != null || to != null) && monthAligned(from, to)) {
+                return spendByCategoryFromRollups(userId, from, to);
+            }
+
+            Document match = userMatch(userId, from, to).append("type", EXPENSE);
+
+            List<CategorySpend> result = new ArrayList<>();
+            for (Document row : aggregate(
+                    new Document("$match", match),
+                    new Document("$group", new Document()
+                            .append("_id", "$category")
+                            .append("total", sumOfAmount())
+                            .append("count", new Document("$sum", 1))),
+                    new Document("$sort", new Document("total", -1)))) {
+
+                result.add(new CategorySpend(
+                        row.getString("_id"),
+                        toBigDecimal(row.get("total")),
+                        ((Number) row.get("count")).longValue()));
+            }
+            return result;
+        });
+    }
+
+    // served from counterparty_ledgers, which is already one document per counterparty
+    @Override
+    public List<CounterpartyBalance> counterpartyBalances(String userId) {
+        return counterpartyLedgerService.findAll(userId).stream()
+                .map(CounterpartyBalance::from)
+                .toList();
+    }
+
+    private List<MonthlyFlow> monthlyFlowFromRollups(String userId, LocalDate from, LocalDate to) {
+
+        Map<String, BigDecimal[]> months = new LinkedHashMap<>();
+        for (MonthlyRollup rollup : monthlyRollupService.findRange(userId, monthOf(from), monthOf(to))) {
+
+            if (rollup.getType() != TransactionType.INCOME && rollup.getType() != TransactionType.EXPENSE) {
+                continue;
+            }
+
+            BigDecimal[] flow = months.computeIfAbsent(
+                    rollup.getMonth(), key -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            int slot = rollup.getType() == TransactionType.INCOME ? 0 : 1;
+            flow[slot] = flow[slot].add(rollup.getTotal());
+        }
+
+        List<MonthlyFlow> result = new ArrayList<>(months.size());
+        months.forEach((month, flow) -> result.add(new MonthlyFlow(
+                month, flow[0], flow[1], flow[0].subtract(flow[1]))));
+        return result;
+    }
+
+    private List<CategorySpend> spendByCategoryFromRollups(String userId, LocalDate from, LocalDate to) {
+
+        Map<String, CategorySpend> categories = new HashMap<>();
+        for (MonthlyRollup rollup : monthlyRollupService.findRange(userId, monthOf(from), monthOf(to))) {
+
+            if (rollup.getType() != TransactionType.EXPENSE) {
+                continue;
+            }
+
+            CategorySpend spend = categories.computeIfAbsent(
+                    rollup.getCategory(), category -> new CategorySpend(category, BigDecimal.ZERO, 0));
+            spend.setTotal(spend.getTotal().add(rollup.getTotal()));
+            spend.setCount(spend.getCount() + rollup.getCount());
+        }
+
+        List<CategorySpend> result = new ArrayList<>(categories.values());
+        result.sort(Comparator.comparing(CategorySpend::getTotal).reversed());
+        return result;
+    }
+
+    // whole-month ranges can be answered from monthly_rollups
+    private static boolean monthAligned(LocalDate from, LocalDate to) {
+        return (from == null || from.getDayOfMonth() == 1)
+                && (to == null || to.equals(YearMonth.from(to).atEndOfMonth()));
+    }
+
+    private static YearMonth monthOf(LocalDate date) {
+        return date != null ? YearMonth.from(date) : null;
+    }
+
+    @Override
+    public void evict(String userId) {
+        generations.put(userId, generationCounter.incrementAndGet());
+    }
+
+    @EventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        evict(event.userId());
+    }
+
+    @EventListener
+    public void onTransactionsImported(TransactionsImportedEvent event) {
+        evict(event.userId());
+    }
+
+    // The aggregation runs on the caller's thread, outside any map lock.
+    // Concurrent callers for the same key wait on the first one's future.
+    // A result computed while a write bumps the generation is stored under
+    // the old generation, which no reader asks for again.
+    @SuppressWarnings("unchecked")
+    private <T> T cached(String userId, String query, Supplier<T> compute) {
+
+        long generation = generations.get(userId, id -> generationCounter.incrementAndGet());
+        ResultKey key = new ResultKey(userId, generation, query);
+
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        CompletableFuture<Object> existing = results.asMap().putIfAbsent(key, pending);
+        if (existing != null) {
+            return (T) existing.join();
+        }
+
+        try {
+            pending.complete(compute.get());
+        } catch (RuntimeException ex) {
+            results.asMap().remove(key, pending);
+            pending.completeExceptionally(ex);
+            throw ex;
+        }
+        return (T) pending.join();
+    }
+
+    private record ResultKey(String userId, long generation, String query) {
+    }
+
+    private List<Document> aggregate(Document... stages) {
+
+        List<AggregationOperation> operations = new ArrayList<>(stages.length);
+        for (Document stage : stages) {
+            operations.add(context -> stage);
+        }
+
+        return mongoTemplate.aggregate(
+                Aggregation.newAggregation(operations),
+                mongoTemplate.getCollectionName(Transaction.class),
+                Document.class
+        ).getMappedResults();
+    }
+
+    private static Document userMatch(String userId, LocalDate from, LocalDate to) {
+
+        Document match = new Document("userId", userId).append("deleted", false);
+
+        Document range = new Document();
+        if (from != null) {
+            range.append("$gte", toDate(from));
+        }
+        if (to != null) {
+            range.append("$lte", toDate(to));
+        }
+        if (!range.isEmpty()) {
+            match.append("transactionDate", range);
+        }
+        return match;
+    }
+
+    // amount may be stored as string or decimal128, $toDecimal covers both
+    private static Document sumOfAmount() {
+        return new Document("$sum", new Document("$toDecimal", "$amount"));
+    }
+}
@@ -2,6 +2,9 @@ package com.man.moneybook.service.impl;
 
 import com.man.moneybook.security.JwtTokenProvider;
 import com.man.moneybook.service.AuthService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -14,23 +17,42 @@ public class AuthServiceImpl implements AuthService {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
     private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
 
     public AuthServiceImpl(AuthenticationManager authenticationManager,
                            JwtTokenProvider jwtTokenProvider,
-                           PasswordEncoder passwordEncoder) {
+                           PasswordEncoder passwordEncoder,
+                           MeterRegistry meterRegistry) {
         this.authenticationManager = authenticationManager;
         this.jwtTokenProvider = jwtTokenProvider;
         this.passwordEncoder = passwordEncoder;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
     public String login(String email, String password) {
 
-        Authentication authentication =
-                authenticationManager.authenticate(
-                        new UsernamePasswordAuthenticationToken(email, password)
-                );
+        // user lookup + Argon2 verify + token signing; the verify alone
+        // is moneybook.password{operation=matches}
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            Authentication authentication =
+                    authenticationManager.authenticate(
+                            new UsernamePasswordAuthenticationToken(email, password)
+                    );
 
-        return jwtTokenProvider.generateToken(authentication);
+            String token = jwtTokenProvider.generateToken(authentication);
+            outcome = "success";
+            return token;
+        } catch (AuthenticationException ex) {
+            outcome = "rejected";
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder("moneybook.auth.login")
+                    .description("Login including password verification")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
     }
 }
@@ -0,0 +1,197 @@
+package com.man.moneybook.service.impl;
+
+import com.man.moneybook.dto.dashboard.TypeTotal;
+import com.man.moneybook.entity.UserBalance;
+import com.man.moneybook.enums.TransactionType;
+import com.man.moneybook.repository.TransactionRepository;
+import com.man.moneybook.service.BalanceLedgerService;
+import org.bson.types.Decimal128;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Service
+public class BalanceLedgerServiceImpl implements BalanceLedgerService {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(BalanceLedgerServiceImpl.class);
+
+    private static final int REBUILD_ATTEMPTS = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final TransactionRepository transactionRepository;
+    private final Duration writeClaimTimeout;
+
+    public BalanceLedgerServiceImpl(MongoTemplate mongoTemplate,
+                                    TransactionRepository transactionRepository,
+                                    @Value("${app.ledger.write-claim-timeout:5m}") Duration writeClaimTimeout) {
+        this.mongoTemplate = mongoTemplate;
+        this.transactionRepository = transactionRepository;
+        this.writeClaimTimeout = writeClaimTimeout;
+    }
+
+    /**
+     * Claims the ledger before a transaction write is stored. Also bumps
+     * the generation, so a rebuild that read the ledger before the claim
+     * can't replace it either.
+     */
+    @Override
+    public void beginWrite(String userId) {
+        mongoTemplate.upsert(
+                Query.query(where("_id").is(userId)),
+                new Update()
+                        .inc("writesInFlight", 1)
+                        .inc("generation", 1)
+                        .currentDate("writeClaimedAt"),
+                UserBalance.class
+        );
+    }
+
+    // guarded: a rebuild may have reset a claim it judged leaked
+    @Override
+    public void endWrite(String userId) {
+        mongoTemplate.updateFirst(
+                Query.query(where("_id").is(userId).and("writesInFlight").gt(0)),
+                new Update().inc("writesInFlight", -1),
+                UserBalance.class
+        );
+    }
+
+    /**
+     * Increments the user's running total for {@code type} and bumps the
+     * ledger's generation. Upserts, so a delta racing the first rebuild
+     * still bumps the generation that rebuild is guarded by.
+     */
+    @Override
+    public void applyDelta(String userId, TransactionType type, BigDecimal delta) {
+
+        if (type == null || delta == null || delta.signum() == 0) {
+            return;
+        }
+
+        mongoTemplate.upsert(
+                Query.query(where("_id").is(userId)),
+                new Update()
+                        .inc(UserBalance.fieldOf(type), new Decimal128(delta))
+                        .inc("generation", 1)
+                        .currentDate("updatedAt"),
+                UserBalance.class
+        );
+    }
+
+    // claims past the timeout are leaked, as in rebuild
+    @Override
+    public boolean hasWritesInFlight(List<String> userIds) {
+        return mongoTemplate.exists(
+                Query.query(where("_id").in(userIds)
+                        .and("writesInFlight").gt(0)
+                        .and("writeClaimedAt").gte(Instant.now().minus(writeClaimTimeout))),
+                UserBalance.class);
+    }
+
+    @Override
+    public UserBalance getBalance(String userId) {
+
+        UserBalance balance = mongoTemplate.findById(userId, UserBalance.class);
+
+        return balance != null && balance.isComplete() ? balance : rebuild(userId);
+    }
+
+    /**
+     * Recomputes the ledger from the transactions collection. The result
+     * replaces the stored document only if its generation is unchanged
+     * since before the aggregation and no write holds a claim; otherwise
+     * a write overlapped the aggregation and it is retried after a short
+     * pause. After {@link #REBUILD_ATTEMPTS} contested tries the stored
+     * ledger is left alone and the aggregation is returned unsaved.
+     */
+    @Override
+    public UserBalance rebuild(String userId) {
+
+        UserBalance balance = null;
+
+        for (int attempt = 0; attempt < REBUILD_ATTEMPTS; attempt++) {
+
+            if (attempt > 0 && !pause(attempt)) {
+                break;
+            }
+
+            UserBalance current = mongoTemplate.findById(userId, UserBalance.class);
+            Long generation = current != null ? current.getGeneration() : null;
+
+            balance = UserBalance.of(
+                    userId,
+                    TypeTotal.asMap(transactionRepository.sumAmountByType(userId))
+            );
+            balance.setGeneration(generation != null ? generation + 1 : 1L);
+
+            if (current == null) {
+                try {
+                    return mongoTemplate.insert(balance);
+                } catch (DuplicateKeyException ex) {
+                    continue;
+                }
+            }
+
+            // where(..).is(null) also matches ledgers written before generations
+            Query unchanged = Query.query(where("_id").is(userId)
+                    .and("generation").is(generation)
+                    .orOperator(
+                            where("writesInFlight").not().gt(0),
+                            where("writeClaimedAt").lt(Instant.now().minus(writeClaimTimeout))));
+
+            UserBalance replaced = mongoTemplate.findAndReplace(unchanged, balance);
+            if (replaced != null) {
+                return balance;
+            }
+        }
+
+        log.warn("Balance ledger rebuild for user {} kept losing to concurrent writes", userId);
+        return balance;
+    }
+
+    // backs off 10, 20, 40, 80 ms: long enough for a write's claim to clear
+    private static boolean pause(int attempt) {
+        try {
+            Thread.sleep(10L << (attempt - 1));
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Recomputes every existing ledger from the transactions collection,
+     * correcting any drift left by failed or interleaved writes.
+     */
+    @Override
+    public int reconcileAll() {
+
+        List<String> userIds = mongoTemplate.findDistinct(
+                new Query(), "_id", UserBalance.class, String.class);
+
+        int rebuilt = 0;
+        for (String userId : userIds) {
+            try {
+                rebuild(userId);
+                rebuilt++;
+            } catch (RuntimeException ex) {
+                log.warn("Balance ledger reconcile failed for user {}", userId, ex);
+            }
+        }
+        return rebuilt;
+    }
+}
@@ -0,0 +1,91 @@
+package com.man.moneybook.service.impl;
+
+import com.man.moneybook.entity.ChangeSequence;
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.service.ChangeSequenceService;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Service
+public class ChangeSequenceServiceImpl implements ChangeSequenceService {
+
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+
+    public ChangeSequenceServiceImpl(MongoTemplate mongoTemplate,
+                                     @Value("${app.sync.backfill.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public long next(String userId) {
+        return reserve(userId, 1);
+    }
+
+    /**
+     * Claims {@code count} consecutive numbers in one upsert and returns
+     * the last; the block is {@code last - count + 1 .. last}. Numbers
+     * burnt by a write that then fails just leave a gap.
+     */
+    @Override
+    public long reserve(String userId, int count) {
+
+        ChangeSequence sequence = mongoTemplate.findAndModify(
+                Query.query(where("_id").is(userId)),
+                new Update().inc("seq", count),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                ChangeSequence.class);
+
+        return sequence.getSeq();
+    }
+
+    /**
+     * Gives rows written before delta sync {@code updatedSeq: 0}, so a
+     * full sync (which starts below 1) reaches them. Walks _id upwards
+     * in batches like the tombstone backfill.
+     */
+    @Override
+    public long backfill() {
+
+        long updated = 0;
+        Object lastId = null;
+
+        while (true) {
+            Criteria criteria = where("updatedSeq").exists(false);
+            if (lastId != null) {
+                criteria.and("_id").gt(lastId);
+            }
+
+            Query page = new Query(criteria).with(Sort.by("_id")).limit(batchSize);
+            page.fields().include("_id");
+
+            List<Object> ids = mongoTemplate.find(
+                            page, Document.class, mongoTemplate.getCollectionName(Transaction.class))
+                    .stream()
+                    .map(row -> row.get("_id"))
+                    .toList();
+            if (ids.isEmpty()) {
+                return updated;
+            }
+
+            updated += mongoTemplate.updateMulti(
+                    Query.query(where("_id").in(ids).and("updatedSeq").exists(false)),
+                    Update.update("updatedSeq", 0L),
+                    Transaction.class).getModifiedCount();
+
+            lastId = ids.get(ids.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.man.moneybook.service.impl;
+
+import com.man.moneybook.entity.CounterpartyLedger;
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.enums.TransactionType;
+import com.man.moneybook.event.TransactionChangedEvent;
+import com.man.moneybook.event.TransactionsImportedEvent;
+import com.man.moneybook.service.CounterpartyLedgerService;
+import com.man.moneybook.util.CounterpartyKeys;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.man.moneybook.util.MongoValues.toBigDecimal;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Service
+public class CounterpartyLedgerServiceImpl implements CounterpartyLedgerService {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(CounterpartyLedgerServiceImpl.class);
+
+    private static final List<String> LOAN_TYPES = List.of(
+            TransactionType.LOAN_GIVEN.name(),
+            TransactionType.RECOVERY.name(),
+            TransactionType.LOAN_TAKEN.name(),
+            TransactionType.SETTLEMENT.name());
+
+    private static final int REBUILD_ATTEMPTS = 5;
+
+    private final MongoTemplate mongoTemplate;
+
+    public CounterpartyLedgerServiceImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        applyChange(event.before(), event.after());
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onTransactionsImported(TransactionsImportedEvent event) {
+        applyInserted(event.userId(), event.inserted());
+    }
+
+    /**
+     * Reverses {@code before} and applies {@code after}, so an edit that
+     * renames the counterparty moves the amount between ledger entries.
+     */
+    @Override
+    public void applyChange(Transaction before, Transaction after) {
+
+        Map<String, Delta> deltas = new LinkedHashMap<>();
+
+        if (before != null) {
+            collect(deltas, before, -1);
+        }
+        if (after != null) {
+            collect(deltas, after, 1);
+        }
+
+        write(deltas);
+    }
+
+    @Override
+    public void applyInserted(String userId, List<Transaction> inserted) {
+
+        Map<String, Delta> deltas = new LinkedHashMap<>();
+        for (Transaction tx : inserted) {
+            collect(deltas, tx, 1);
+        }
+
+        write(deltas);
+    }
+
+    @Override
+    public List<CounterpartyLedger> findAll(String userId) {
+        return mongoTemplate.find(
+                Query.query(where("userId").is(userId)).with(Sort.by("key")),
+                CounterpartyLedger.class);
+    }
+
+    /**
+     * Entries with a non-zero position in the requested direction,
+     * largest amount owed first, read straight off the user_outstanding index.
+     */
+    @Override
+    public List<CounterpartyLedger> findOpen(String userId, boolean owedToUser, int limit) {
+
+        Query query = owedToUser
+                ? Query.query(where("userId").is(userId).and("outstanding").gt(Decimal128.POSITIVE_ZERO))
+                        .with(Sort.by(Sort.Direction.DESC, "outstanding"))
+                : Query.query(where("userId").is(userId).and("outstanding").lt(Decimal128.POSITIVE_ZERO))
+                        .with(Sort.by(Sort.Direction.ASC, "outstanding"));
+
+        return mongoTemplate.find(query.limit(limit), CounterpartyLedger.class);
+    }
+
+    /**
+     * Recomputes the user's entries and swaps them in with one unordered
+     * bulk: a guarded replace per computed key, an insert per new key and
+     * a guarded delete per stale key. Readers never see an empty ledger.
+     * A delta landing on any entry while the aggregation runs makes its
+     * guard miss, and the whole rebuild is retried.
+     */
+    @Override
+    public int rebuild(String userId) {
+
+        for (int attempt = 0; attempt < REBUILD_ATTEMPTS; attempt++) {
+
+            Map<String, Long> generations = new HashMap<>();
+            for (CounterpartyLedger entry : findAll(userId)) {
+                generations.put(entry.getId(), entry.getGeneration());
+            }
+
+            List<CounterpartyLedger> ledgers = aggregate(userId);
+            if (ledgers.isEmpty() && generations.isEmpty()) {
+                return 0;
+            }
+
+            if (swapIn(ledgers, generations)) {
+                return ledgers.size();
+            }
+        }
+
+        log.warn("Counterparty ledger rebuild for user {} kept losing to concurrent writes", userId);
+        return 0;
+    }
+
+    private boolean swapIn(List<CounterpartyLedger> ledgers, Map<String, Long> generations) {
+
+        BulkOperations ops = mongoTemplate.bulkOps(
+                BulkOperations.BulkMode.UNORDERED, CounterpartyLedger.class);
+
+        Map<String, Long> stale = new HashMap<>(generations);
+        int replaced = 0;
+        int inserted = 0;
+
+        for (CounterpartyLedger ledger : ledgers) {
+            if (stale.containsKey(ledger.getId())) {
+                Long generation = stale.remove(ledger.getId());
+                ledger.setGeneration(generation != null ? generation + 1 : 1L);
+                ops.replaceOne(guarded(ledger.getId(), generation), ledger);
+                replaced++;
+            } else {
+                ledger.setGeneration(1L);
+                ops.insert(ledger);
+                inserted++;
+            }
+        }
+        stale.forEach((id, generation) -> ops.remove(guarded(id, generation)));
+
+        BulkWriteResult result;
+        try {
+            result = ops.execute();
+        } catch (BulkOperationException ex) {
+            // a key inserted meanwhile: the rest of the bulk still applied
+            return false;
+        }
+
+        return result.getMatchedCount() == replaced
+                && result.getInsertedCount() == inserted
+                && result.getDeletedCount() == stale.size();
+    }
+
+    // where(..).is(null) also matches entries written before generations
+    private static Query guarded(String id, Long generation) {
+        return Query.query(where("_id").is(id).and("generation").is(generation));
+    }
+
+    private List<CounterpartyLedger> aggregate(String userId) {
+
+        Document match = new Document("userId", userId)
+                .append("deleted", false)
+                .append("type", new Document("$in", LOAN_TYPES))
+                .append("counterparty", new Document("$nin", Arrays.asList("", null)));
+
+        Document group = new Document("$group", new Document()
+                .append("_id", new Document()
+                        .append("counterparty", "$counterparty")
+                        .append("type", "$type"))
+                .append("total", new Document("$sum", new Document("$toDecimal", "$amount"))));
+
+        List<AggregationOperation> pipeline = List.of(
+                context -> new Document("$match", match),
+                context -> group);
+
+        // raw spellings are grouped by Mongo, normalized keys merged here
+        Map<String, Delta> deltas = new LinkedHashMap<>();
+        for (Document row : mongoTemplate.aggregate(
+                Aggregation.newAggregation(pipeline),
+                mongoTemplate.getCollectionName(Transaction.class),
+                Document.class).getMappedResults()) {
+
+            Document id = row.get("_id", Document.class);
+            String counterparty = id.getString("counterparty");
+            String key = CounterpartyKeys.normalize(counterparty);
+            if (key == null) {
+                continue;
+            }
+
+            deltas.computeIfAbsent(CounterpartyLedger.idOf(userId, key),
+                            ledgerId -> new Delta(userId, key, counterparty))
+                    .add(TransactionType.valueOf(id.getString("type")), toBigDecimal(row.get("total")));
+        }
+
+        Instant now = Instant.now();
+        List<CounterpartyLedger> ledgers = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> ledgers.add(CounterpartyLedger.builder()
+                .id(id)
+                .userId(userId)
+                .key(delta.key)
+                .displayName(delta.displayName)
+                .receivable(delta.receivable)
+                .payable(delta.payable)
+                .outstanding(delta.receivable.subtract(delta.payable))
+                .updatedAt(now)
+                .build()));
+        return ledgers;
+    }
+
+    /**
+     * Rebuilds the ledger of every user with loan transactions. Also
+     * serves as the backfill for history written before the ledger existed.
+     */
+    @Override
+    public int reconcileAll() {
+
+        List<String> userIds = mongoTemplate.findDistinct(
+                Query.query(where("deleted").is(false).and("type").in(LOAN_TYPES)),
+                "userId", Transaction.class, String.class);
+
+        int rebuilt = 0;
+        for (String userId : userIds) {
+            try {
+                rebuild(userId);
+                rebuilt++;
+            } catch (RuntimeException ex) {
+                log.warn("Counterparty ledger reconcile failed for user {}", userId, ex);
+            }
+        }
+        return rebuilt;
+    }
+
+    private static void collect(Map<String, Delta> deltas, Transaction tx, int sign) {
+
+        String key = CounterpartyKeys.normalize(tx.getCounterparty());
+        if (key == null || tx.getType() == null || tx.getAmount() == null) {
+            return;
+        }
+
+        BigDecimal amount = sign > 0 ? tx.getAmount() : tx.getAmount().negate();
+
+        Delta delta = deltas.computeIfAbsent(CounterpartyLedger.idOf(tx.getUserId(), key),
+                id -> new Delta(tx.getUserId(), key, tx.getCounterparty()));
+        delta.add(tx.getType(), amount);
+
+        // the newest spelling wins the display name
+        if (sign > 0) {
+            delta.displayName = CounterpartyKeys.displayName(tx.getCounterparty());
+        }
+    }
+
+    private void write(Map<String, Delta> deltas) {
+
+        deltas.values().removeIf(Delta::isEmpty);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        BulkOperations ops = mongoTemplate.bulkOps(
+                BulkOperations.BulkMode.UNORDERED, CounterpartyLedger.class);
+
+        deltas.forEach((id, delta) -> ops.upsert(
+                Query.query(where("_id").is(id)),
+                new Update()
+                        .inc("receivable", new Decimal128(delta.receivable))
+                        .inc("payable", new Decimal128(delta.payable))
+                        .inc("outstanding", new Decimal128(delta.receivable.subtract(delta.payable)))
+                        .set("displayName", delta.displayName)
+                        .inc("generation", 1)
+                        .setOnInsert("userId", delta.userId)
+                        .setOnInsert("key", delta.key)
+                        .currentDate("updatedAt")));
+
+        ops.execute();
+    }
+
+    private static final class Delta {
+
+        private final String userId;
+        private final String key;
+        private String displayName;
+        private BigDecimal receivable = BigDecimal.ZERO;
+        private BigDecimal payable = BigDecimal.ZERO;
+
+        private Delta(String userId, String key, String counterparty) {
+            this.userId = userId;
+            this.key = key;
+            this.displayName = CounterpartyKeys.displayName(counterparty);
+        }
+
+        private void add(TransactionType type, BigDecimal amount) {
+            switch (type) {
+                case LOAN_GIVEN -> receivable = receivable.add(amount);
+                case RECOVERY -> receivable = receivable.subtract(amount);
+                case LOAN_TAKEN -> payable = payable.add(amount);
+                case SETTLEMENT -> payable = payable.subtract(amount);
+                default -> {
+                }
+            }
+        }
+
+        private boolean isEmpty() {
+            return receivable.signum() == 0 && payable.signum() == 0;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.man.moneybook.service.impl;
+
+import com.man.moneybook.dto.dashboard.DashboardSummary;
+import com.man.moneybook.service.BalanceLedgerService;
+import com.man.moneybook.service.DashboardService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+@Service
+public class DashboardServiceImpl implements DashboardService {
+
+    private final BalanceLedgerService balanceLedgerService;
+    private final Timer summaryTimer;
+
+    public DashboardServiceImpl(BalanceLedgerService balanceLedgerService,
+                                MeterRegistry meterRegistry) {
+        this.balanceLedgerService = balanceLedgerService;
+        this.summaryTimer = Timer.builder("moneybook.summary")
+                .description("Dashboard summary computation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Single-document read of the user's ledger; the ledger itself is
+     * built with a server-side $group aggregation when missing.
+     */
+    @Override
+    public DashboardSummary getSummary(String userId) {
+        return summaryTimer.record(() -> DashboardSummary.fromTotals(
+                balanceLedgerService.getBalance(userId).toTotals()));
+    }
+}
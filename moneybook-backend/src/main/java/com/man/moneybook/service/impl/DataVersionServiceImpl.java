@@ -0,0 +1,68 @@
+package com.man.moneybook.service.impl;
+
+import com.man.moneybook.entity.UserDataVersion;
+import com.man.moneybook.service.DataVersionService;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Service
+public class DataVersionServiceImpl implements DataVersionService {
+
+    private final MongoTemplate mongoTemplate;
+
+    public DataVersionServiceImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Strong ETag for one representation of the user's data: the version
+     * counter plus a hash of {@code variant} (path and query), so each
+     * page, filter and id gets its own tag. Costs one _id lookup.
+     */
+    @Override
+    public String etag(String userId, String variant) {
+
+        UserDataVersion version = mongoTemplate.findById(userId, UserDataVersion.class);
+
+        if (version == null) {
+            version = mongoTemplate.findAndModify(
+                    Query.query(where("_id").is(userId)),
+                    new Update().setOnInsert("epoch", new ObjectId().toHexString()),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    UserDataVersion.class);
+        }
+
+        return format(version, userId, variant);
+    }
+
+    // Weak, because Tomcat won't gzip a response carrying a strong ETag;
+    // If-None-Match compares weakly, so 304s are unaffected.
+    static String format(UserDataVersion version, String userId, String variant) {
+
+        String hash = DigestUtils.md5DigestAsHex(
+                (userId + "|" + variant).getBytes(StandardCharsets.UTF_8));
+
+        return "W/\"" + version.getEpoch() + "-" + version.getVersion() + "-" + hash + "\"";
+    }
+
+    // Called by every write path after publishing its event, in a finally,
+    // so a failing listener can't leave the old tag in place.
+    @Override
+    public void bump(String userId) {
+        mongoTemplate.upsert(
+                Query.query(where("_id").is(userId)),
+                new Update()
+                        .inc("version", 1)
+                        .setOnInsert("epoch", new ObjectId().toHexString()),
+                UserDataVersion.class);
+    }
+}
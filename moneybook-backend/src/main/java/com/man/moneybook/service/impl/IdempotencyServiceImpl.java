@@ -0,0 +1,203 @@
+package com.man.moneybook.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.man.moneybook.dto.transaction.TransactionResponseDto;
+import com.man.moneybook.entity.IdempotencyRecord;
+import com.man.moneybook.exception.IdempotencyConflictException;
+import com.man.moneybook.service.IdempotencyService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+import static org.springframework.data.mongodb.core.query.Update.update;
+
+/**
+ * Completed keys are served from a Caffeine front cache, so a retry costs
+ * one lookup. On a miss, the first request inserts a claim into
+ * idempotency_keys, and the unique _id makes it the only winner across
+ * instances. Duplicates on the same instance wait for the winner's
+ * result; on another instance they get a 409 until it completes. A
+ * failed write deletes its claim so the client can retry. A crash
+ * between the write and completing the claim leaves the key answering
+ * 409 until the TTL removes it.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    // userId|key -> completed record
+    private final Cache<String, IdempotencyRecord> completed;
+    private final ConcurrentMap<String, CompletableFuture<TransactionResponseDto>> inFlight =
+            new ConcurrentHashMap<>();
+
+    private final Counter executed;
+    private final Counter replayed;
+
+    public IdempotencyServiceImpl(MongoTemplate mongoTemplate,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.idempotency.cache.max-size:10000}") long maxSize,
+                                  @Value("${app.idempotency.cache.ttl:10m}") Duration ttl,
+                                  MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.executed = outcome(meterRegistry, "executed");
+        this.replayed = outcome(meterRegistry, "replayed");
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("moneybook.idempotency.requests")
+                .description("Writes carrying an Idempotency-Key")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public TransactionResponseDto execute(String userId,
+                                          String key,
+                                          Object request,
+                                          Supplier<TransactionResponseDto> write) {
+
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String id = IdempotencyRecord.idOf(userId, key);
+        String requestHash = hash(request);
+
+        IdempotencyRecord cached = completed.getIfPresent(id);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        CompletableFuture<TransactionResponseDto> mine = new CompletableFuture<>();
+        CompletableFuture<TransactionResponseDto> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            return awaitWinner(running, id, requestHash);
+        }
+
+        try {
+            TransactionResponseDto response = claimAndRun(id, requestHash, write);
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    private TransactionResponseDto claimAndRun(String id,
+                                               String requestHash,
+                                               Supplier<TransactionResponseDto> write) {
+        try {
+            mongoTemplate.insert(IdempotencyRecord.builder()
+                    .id(id)
+                    .requestHash(requestHash)
+                    .createdAt(new Date())
+                    .build());
+        } catch (DuplicateKeyException ex) {
+            IdempotencyRecord existing = mongoTemplate.findById(id, IdempotencyRecord.class);
+            if (existing == null) {
+                // claim released by a failed write or expired in between
+                return claimAndRun(id, requestHash, write);
+            }
+            if (existing.getResponse() == null) {
+                throw inProgress();
+            }
+            completed.put(id, existing);
+            return replay(existing, requestHash);
+        }
+
+        TransactionResponseDto response;
+        try {
+            response = write.get();
+        } catch (RuntimeException ex) {
+            mongoTemplate.remove(query(where("_id").is(id)), IdempotencyRecord.class);
+            throw ex;
+        }
+        executed.increment();
+
+        mongoTemplate.updateFirst(
+                query(where("_id").is(id)),
+                update("response", response),
+                IdempotencyRecord.class);
+        completed.put(id, IdempotencyRecord.builder()
+                .id(id)
+                .requestHash(requestHash)
+                .response(response)
+                .build());
+        return response;
+    }
+
+    private TransactionResponseDto awaitWinner(CompletableFuture<TransactionResponseDto> running,
+                                               String id,
+                                               String requestHash) {
+        try {
+            running.join();
+        } catch (CompletionException ex) {
+            // the winner failed and released its claim; the client may retry
+            throw inProgress();
+        }
+        IdempotencyRecord record = completed.getIfPresent(id);
+        if (record == null) {
+            throw inProgress();
+        }
+        return replay(record, requestHash);
+    }
+
+    private TransactionResponseDto replay(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyConflictException(
+                    "Idempotency-Key was already used with a different request",
+                    HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+        replayed.increment();
+        return record.getResponse();
+    }
+
+    private static IdempotencyConflictException inProgress() {
+        return new IdempotencyConflictException(
+                "A request with this Idempotency-Key is still in progress",
+                HttpStatus.CONFLICT);
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsBytes(request));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException | JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package com.man.moneybook.service.impl;
+
+import com.man.moneybook.entity.MonthlyRollup;
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.enums.TransactionType;
+import com.man.moneybook.event.TransactionChangedEvent;
+import com.man.moneybook.event.TransactionsImportedEvent;
+import com.man.moneybook.service.BalanceLedgerService;
+import com.man.moneybook.service.MonthlyRollupService;
+import org.bson.Document;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.types.Decimal128;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.man.moneybook.util.MongoValues.timezone;
+import static com.man.moneybook.util.MongoValues.toBigDecimal;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Service
+public class MonthlyRollupServiceImpl implements MonthlyRollupService {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(MonthlyRollupServiceImpl.class);
+
+    private static final int REBUILD_ATTEMPTS = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final BalanceLedgerService balanceLedgerService;
+
+    public MonthlyRollupServiceImpl(MongoTemplate mongoTemplate,
+                                    BalanceLedgerService balanceLedgerService) {
+        this.mongoTemplate = mongoTemplate;
+        this.balanceLedgerService = balanceLedgerService;
+    }
+
+    // Runs before the analytics cache eviction so a read racing the
+    // eviction already sees the updated buckets.
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        applyChange(event.before(), event.after());
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onTransactionsImported(TransactionsImportedEvent event) {
+        applyInserted(event.userId(), event.inserted());
+    }
+
+    /**
+     * Moves {@code before} out of its bucket and {@code after} into its
+     * own. When the two share a bucket only the amount difference is
+     * applied; an edit across months decrements one and increments the other.
+     */
+    @Override
+    public void applyChange(Transaction before, Transaction after) {
+
+        Map<String, Delta> deltas = new LinkedHashMap<>();
+
+        if (before != null) {
+            collect(deltas, before, -1);
+        }
+        if (after != null) {
+            collect(deltas, after, 1);
+        }
+
+        write(deltas);
+    }
+
+    @Override
+    public void applyInserted(String userId, List<Transaction> inserted) {
+
+        Map<String, Delta> deltas = new LinkedHashMap<>();
+        for (Transaction tx : inserted) {
+            collect(deltas, tx, 1);
+        }
+
+        write(deltas);
+    }
+
+    @Override
+    public List<MonthlyRollup> findRange(String userId, YearMonth from, YearMonth to) {
+
+        Criteria criteria = where("userId").is(userId);
+
+        if (from != null || to != null) {
+            Criteria month = criteria.and("month");
+            if (from != null) {
+                month.gte(from.toString());
+            }
+            if (to != null) {
+                month.lte(to.toString());
+            }
+        }
+
+        return mongoTemplate.find(
+                Query.query(criteria).with(Sort.by("month")),
+                MonthlyRollup.class);
+    }
+
+    @Override
+    public int rebuild(String userId) {
+        return rebuildUsers(List.of(userId));
+    }
+
+    /**
+     * Rebuilds the rollups of every user with transactions, one
+     * aggregation per batch of {@code batchSize} users, with up to
+     * {@code parallelism} batches in flight.
+     */
+    @Override
+    public int backfill(int parallelism, int batchSize) {
+
+        List<String> userIds = mongoTemplate.findDistinct(
+                Query.query(where("deleted").is(false)), "userId", Transaction.class, String.class);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try {
+            List<Future<Integer>> batches = new ArrayList<>();
+            for (int i = 0; i < userIds.size(); i += batchSize) {
+                List<String> batch = userIds.subList(i, Math.min(i + batchSize, userIds.size()));
+                batches.add(executor.submit(() -> rebuildUsers(batch)));
+            }
+
+            int buckets = 0;
+            for (Future<Integer> batch : batches) {
+                try {
+                    buckets += batch.get();
+                } catch (ExecutionException ex) {
+                    log.warn("Monthly rollup backfill batch failed", ex.getCause());
+                }
+            }
+            return buckets;
+
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Monthly rollup backfill interrupted", ex);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Recomputes the users' buckets and swaps them in with one unordered
+     * bulk, like the counterparty ledger: a guarded replace per existing
+     * bucket, an insert per new one and a guarded delete per stale one,
+     * so readers never see a user without rollups. A $inc landing on any
+     * bucket meanwhile makes its guard miss; a write still between its
+     * save and its rollup delta holds a ledger claim. Either way the
+     * batch is retried.
+     */
+    private int rebuildUsers(List<String> userIds) {
+
+        for (int attempt = 0; attempt < REBUILD_ATTEMPTS; attempt++) {
+
+            if (attempt > 0 && !pause(attempt)) {
+                break;
+            }
+
+            Query existing = Query.query(where("userId").in(userIds));
+            existing.fields().include("_id", "generation");
+
+            Map<String, Long> generations = new HashMap<>();
+            for (MonthlyRollup rollup : mongoTemplate.find(existing, MonthlyRollup.class)) {
+                generations.put(rollup.getId(), rollup.getGeneration());
+            }
+
+            List<MonthlyRollup> rollups = aggregate(userIds);
+            if (rollups.isEmpty() && generations.isEmpty()) {
+                return 0;
+            }
+
+            if (!balanceLedgerService.hasWritesInFlight(userIds) && swapIn(rollups, generations)) {
+                return rollups.size();
+            }
+        }
+
+        log.warn("Monthly rollup rebuild for {} users kept losing to concurrent writes", userIds.size());
+        return 0;
+    }
+
+    private boolean swapIn(List<MonthlyRollup> rollups, Map<String, Long> generations) {
+
+        BulkOperations ops = mongoTemplate.bulkOps(
+                BulkOperations.BulkMode.UNORDERED, MonthlyRollup.class);
+
+        Map<String, Long> stale = new HashMap<>(generations);
+        int replaced = 0;
+        int inserted = 0;
+
+        for (MonthlyRollup rollup : rollups) {
+            if (stale.containsKey(rollup.getId())) {
+                Long generation = stale.remove(rollup.getId());
+                rollup.setGeneration(generation != null ? generation + 1 : 1L);
+                ops.replaceOne(guarded(rollup.getId(), generation), rollup);
+                replaced++;
+            } else {
+                rollup.setGeneration(1L);
+                ops.insert(rollup);
+                inserted++;
+            }
+        }
+        stale.forEach((id, generation) -> ops.remove(guarded(id, generation)));
+
+        BulkWriteResult result;
+        try {
+            result = ops.execute();
+        } catch (BulkOperationException ex) {
+            // a bucket created meanwhile: the rest of the bulk still applied
+            return false;
+        }
+
+        return result.getMatchedCount() == replaced
+                && result.getInsertedCount() == inserted
+                && result.getDeletedCount() == stale.size();
+    }
+
+    // where(..).is(null) also matches buckets written before generations
+    private static Query guarded(String id, Long generation) {
+        return Query.query(where("_id").is(id).and("generation").is(generation));
+    }
+
+    // backs off 10, 20, 40, 80 ms: long enough for a write's claim to clear
+    private static boolean pause(int attempt) {
+        try {
+            Thread.sleep(10L << (attempt - 1));
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private List<MonthlyRollup> aggregate(List<String> userIds) {
+
+        Document match = new Document("userId", new Document("$in", userIds))
+                .append("deleted", false)
+                .append("transactionDate", new Document("$ne", null));
+
+        Document group = new Document("$group", new Document()
+                .append("_id", new Document()
+                        .append("userId", "$userId")
+                        .append("month", new Document("$dateToString", new Document()
+                                .append("format", "%Y-%m")
+                                .append("date", "$transactionDate")
+                                .append("timezone", timezone())))
+                        .append("type", "$type")
+                        .append("category", "$category"))
+                .append("total", new Document("$sum", new Document("$toDecimal", "$amount")))
+                .append("count", new Document("$sum", 1)));
+
+        List<AggregationOperation> pipeline = List.of(
+                context -> new Document("$match", match),
+                context -> group);
+
+        List<MonthlyRollup> rollups = new ArrayList<>();
+        for (Document row : mongoTemplate.aggregate(
+                Aggregation.newAggregation(pipeline),
+                mongoTemplate.getCollectionName(Transaction.class),
+                Document.class).getMappedResults()) {
+
+            Document id = row.get("_id", Document.class);
+            String userId = id.getString("userId");
+            YearMonth month = YearMonth.parse(id.getString("month"));
+            TransactionType type = TransactionType.valueOf(id.getString("type"));
+            String category = id.getString("category");
+
+            rollups.add(MonthlyRollup.builder()
+                    .id(MonthlyRollup.idOf(userId, month, type, category))
+                    .userId(userId)
+                    .month(month.toString())
+                    .type(type)
+                    .category(category)
+                    .total(toBigDecimal(row.get("total")))
+                    .count(((Number) row.get("count")).longValue())
+                    .build());
+        }
+
+        return rollups;
+    }
+
+    private static void collect(Map<String, Delta> deltas, Transaction tx, int sign) {
+
+        if (tx.getType() == null || tx.getTransactionDate() == null) {
+            return;
+        }
+
+        YearMonth month = YearMonth.from(tx.getTransactionDate());
+        String id = MonthlyRollup.idOf(tx.getUserId(), month, tx.getType(), tx.getCategory());
+
+        Delta delta = deltas.computeIfAbsent(id, key -> new Delta(tx, month));
+        BigDecimal amount = tx.getAmount() != null ? tx.getAmount() : BigDecimal.ZERO;
+        delta.total = sign > 0 ? delta.total.add(amount) : delta.total.subtract(amount);
+        delta.count += sign;
+    }
+
+    private void write(Map<String, Delta> deltas) {
+
+        deltas.values().removeIf(Delta::isEmpty);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        BulkOperations ops = mongoTemplate.bulkOps(
+                BulkOperations.BulkMode.UNORDERED, MonthlyRollup.class);
+
+        List<String> decremented = new ArrayList<>();
+        deltas.forEach((id, delta) -> {
+            ops.upsert(
+                    Query.query(where("_id").is(id)),
+                    new Update()
+                            .inc("total", new Decimal128(delta.total))
+                            .inc("count", delta.count)
+                            .inc("generation", 1)
+                            .setOnInsert("userId", delta.userId)
+                            .setOnInsert("month", delta.month)
+                            .setOnInsert("type", delta.type)
+                            .setOnInsert("category", delta.category));
+            if (delta.count < 0) {
+                decremented.add(id);
+            }
+        });
+        ops.execute();
+
+        // a bucket whose last transaction moved out would otherwise linger at zero
+        if (!decremented.isEmpty()) {
+            mongoTemplate.remove(
+                    Query.query(where("_id").in(decremented).and("count").lte(0)),
+                    MonthlyRollup.class);
+        }
+    }
+
+    private static final class Delta {
+
+        private final String userId;
+        private final String month;
+        private final String type;
+        private final String category;
+        private BigDecimal total = BigDecimal.ZERO;
+        private long count;
+
+        private Delta(Transaction tx, YearMonth month) {
+            this.userId = tx.getUserId();
+            this.month = month.toString();
+            this.type = tx.getType().name();
+            this.category = tx.getCategory();
+        }
+
+        private boolean isEmpty() {
+            return count == 0 && total.signum() == 0;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.man.moneybook.service.impl;
+
+import com.man.moneybook.dto.dashboard.DashboardSummary;
+import com.man.moneybook.entity.UserBalance;
+import com.man.moneybook.service.BalanceLedgerService;
+import com.man.moneybook.service.ReactiveDashboardService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDashboardServiceImpl implements ReactiveDashboardService {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final BalanceLedgerService balanceLedgerService;
+
+    public ReactiveDashboardServiceImpl(ReactiveMongoTemplate reactiveMongoTemplate,
+                                        BalanceLedgerService balanceLedgerService) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.balanceLedgerService = balanceLedgerService;
+    }
+
+    // The ledger read is non-blocking; the one-off rebuild for a user
+    // without a ledger reuses the blocking service off the event loop.
+    @Override
+    public Mono<DashboardSummary> getSummary(String userId) {
+        return reactiveMongoTemplate.findById(userId, UserBalance.class)
+                .filter(UserBalance::isComplete)
+                .switchIfEmpty(Mono.fromCallable(() -> balanceLedgerService.rebuild(userId))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .map(balance -> DashboardSummary.fromTotals(balance.toTotals()));
+    }
+}
@@ -0,0 +1,37 @@
+package com.man.moneybook.service.impl;
+
+import com.man.moneybook.entity.UserDataVersion;
+import com.man.moneybook.service.ReactiveDataVersionService;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Same tags as DataVersionServiceImpl, read through the reactive driver
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDataVersionServiceImpl implements ReactiveDataVersionService {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public ReactiveDataVersionServiceImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Mono<String> etag(String userId, String variant) {
+        return reactiveMongoTemplate.findById(userId, UserDataVersion.class)
+                .switchIfEmpty(reactiveMongoTemplate.findAndModify(
+                        Query.query(where("_id").is(userId)),
+                        new Update().setOnInsert("epoch", new ObjectId().toHexString()),
+                        FindAndModifyOptions.options().upsert(true).returnNew(true),
+                        UserDataVersion.class))
+                .map(version -> DataVersionServiceImpl.format(version, userId, variant));
+    }
+}
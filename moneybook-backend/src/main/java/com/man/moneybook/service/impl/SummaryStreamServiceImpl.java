@@ -0,0 +1,261 @@
+package com.man.moneybook.service.impl;
+
+import com.man.moneybook.dto.dashboard.DashboardSummary;
+import com.man.moneybook.event.TransactionChangedEvent;
+import com.man.moneybook.event.TransactionsImportedEvent;
+import com.man.moneybook.service.DashboardService;
+import com.man.moneybook.service.SummaryStreamService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pushes {@link DashboardSummary} updates to open dashboards over SSE.
+ * An idle emitter is just an entry in a map on a parked async request,
+ * so it holds no thread. A write schedules one push per user after a
+ * short debounce; the summary is read once and fanned out to every
+ * open stream of that user, and users without streams cost nothing.
+ * Sends run on a small pool, one at a time per stream, so a slow client
+ * only delays itself. Only writes made on this instance are seen.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SummaryStreamServiceImpl implements SummaryStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(SummaryStreamServiceImpl.class);
+
+    private static final String EVENT_NAME = "summary";
+
+    private final DashboardService dashboardService;
+    private final Duration timeout;
+    private final Duration debounce;
+    private final long sendTimeoutNanos;
+
+    private final Map<String, Set<Stream>> subscribers = new ConcurrentHashMap<>();
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    // one thread for debounced pushes and heartbeats; it never writes to a socket
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "summary-stream");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    // blocking emitter sends
+    private final ExecutorService senders;
+
+    public SummaryStreamServiceImpl(DashboardService dashboardService,
+                                    @Value("${app.summary-stream.timeout:30m}") Duration timeout,
+                                    @Value("${app.summary-stream.debounce:250ms}") Duration debounce,
+                                    @Value("${app.summary-stream.heartbeat:25s}") Duration heartbeat,
+                                    @Value("${app.summary-stream.send-threads:4}") int sendThreads,
+                                    @Value("${app.summary-stream.send-timeout:10s}") Duration sendTimeout,
+                                    MeterRegistry meterRegistry) {
+        this.dashboardService = dashboardService;
+        this.timeout = timeout;
+        this.debounce = debounce;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+
+        AtomicInteger senderCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(Math.max(1, sendThreads), runnable -> {
+            Thread thread = new Thread(runnable, "summary-stream-send-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("moneybook.summary.stream.subscribers", this, SummaryStreamServiceImpl::subscriberCount)
+                .description("Open dashboard summary streams")
+                .register(meterRegistry);
+
+        long period = heartbeat.toMillis();
+        scheduler.scheduleWithFixedDelay(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // The first event is the current summary, so a reconnect after a
+    // timeout or network drop never misses a change made in between.
+    @Override
+    public SseEmitter subscribe(String userId) {
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Stream stream = new Stream(userId, emitter);
+
+        // compute, not computeIfAbsent + add: a concurrent remove may drop an emptied set
+        subscribers.compute(userId, (id, streams) -> {
+            Set<Stream> target = streams != null ? streams : ConcurrentHashMap.<Stream>newKeySet();
+            target.add(stream);
+            return target;
+        });
+
+        emitter.onCompletion(() -> remove(stream));
+        emitter.onTimeout(() -> remove(stream));
+        emitter.onError(error -> remove(stream));
+
+        stream.offer(dashboardService.getSummary(userId));
+        return emitter;
+    }
+
+    @Override
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @EventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        schedulePush(event.userId());
+    }
+
+    @EventListener
+    public void onTransactionsImported(TransactionsImportedEvent event) {
+        schedulePush(event.userId());
+    }
+
+    // a bulk import publishes once per batch; coalesce into one push
+    private void schedulePush(String userId) {
+        if (subscribers.containsKey(userId) && pending.add(userId)) {
+            scheduler.schedule(() -> push(userId), debounce.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void push(String userId) {
+
+        // cleared before the read so a write landing during it schedules another push
+        pending.remove(userId);
+
+        Set<Stream> streams = subscribers.get(userId);
+        if (streams == null || streams.isEmpty()) {
+            return;
+        }
+
+        DashboardSummary summary;
+        try {
+            summary = dashboardService.getSummary(userId);
+        } catch (RuntimeException ex) {
+            log.warn("Summary push skipped for user {}: {}", userId, ex.getMessage());
+            return;
+        }
+
+        for (Stream stream : streams) {
+            stream.offer(summary);
+        }
+    }
+
+    // keeps proxies from closing the stream and finds dead connections
+    private void heartbeat() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(streams -> streams.forEach(stream -> {
+            if (stream.stalled(now)) {
+                // stop feeding it; the container's write timeout ends the blocked send
+                log.warn("Dropping summary stream for user {}: send stalled", stream.userId);
+                remove(stream);
+            } else {
+                stream.ping();
+            }
+        }));
+    }
+
+    private void remove(Stream stream) {
+        subscribers.computeIfPresent(stream.userId, (id, streams) -> {
+            streams.remove(stream);
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+        subscribers.values().forEach(streams -> streams.forEach(stream -> stream.emitter.complete()));
+        subscribers.clear();
+    }
+
+    // At most one send in flight per stream; a summary offered while one
+    // is sending replaces any older unsent one, so the client always ends
+    // on the latest state and never queues up a backlog.
+    private final class Stream {
+
+        private final String userId;
+        private final SseEmitter emitter;
+        private final AtomicReference<DashboardSummary> next = new AtomicReference<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile long sendingSince;
+
+        private Stream(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(DashboardSummary summary) {
+            next.set(summary);
+            dispatch(null);
+        }
+
+        // skipped while a send is in flight, which already proves the connection
+        void ping() {
+            dispatch(SseEmitter.event().comment("ping"));
+        }
+
+        boolean stalled(long now) {
+            return sending.get() && now - sendingSince > sendTimeoutNanos;
+        }
+
+        private void dispatch(SseEmitter.SseEventBuilder ping) {
+
+            if (!sending.compareAndSet(false, true)) {
+                return;
+            }
+            sendingSince = System.nanoTime();
+
+            try {
+                senders.execute(() -> {
+                    try {
+                        if (ping != null) {
+                            emitter.send(ping);
+                        }
+                        DashboardSummary summary;
+                        while ((summary = next.getAndSet(null)) != null) {
+                            emitter.send(SseEmitter.event()
+                                    .name(EVENT_NAME)
+                                    .data(summary, MediaType.APPLICATION_JSON));
+                        }
+                    } catch (IOException | IllegalStateException ex) {
+                        // the container completes the async request on a broken connection
+                        remove(this);
+                        return;
+                    } finally {
+                        sending.set(false);
+                    }
+                    // offered after the loop drained but before the flag cleared
+                    if (next.get() != null) {
+                        dispatch(null);
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                // shutting down
+                sending.set(false);
+            }
+        }
+    }
+}
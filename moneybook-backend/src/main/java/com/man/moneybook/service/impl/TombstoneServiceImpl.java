@@ -0,0 +1,132 @@
+package com.man.moneybook.service.impl;
+
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.service.TombstoneService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Housekeeping for soft-deleted transactions. Both passes work in
+ * batches of {@code app.purge.batch-size} ids so no single write holds
+ * the collection for long; the purge also pauses between batches and
+ * stops after {@code app.purge.max-batches}, leaving the rest for its
+ * next run.
+ */
+@Service
+public class TombstoneServiceImpl implements TombstoneService {
+
+    private final MongoTemplate mongoTemplate;
+    private final Counter purged;
+    private final int batchSize;
+    private final Duration pause;
+    private final int maxBatches;
+
+    public TombstoneServiceImpl(MongoTemplate mongoTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.purge.batch-size:500}") int batchSize,
+                                @Value("${app.purge.pause:200ms}") Duration pause,
+                                @Value("${app.purge.max-batches:100}") int maxBatches) {
+        this.mongoTemplate = mongoTemplate;
+        this.purged = Counter.builder("moneybook.tombstones.purged")
+                .description("Soft-deleted transactions removed for good")
+                .register(meterRegistry);
+        this.batchSize = Math.max(1, batchSize);
+        this.pause = pause;
+        this.maxBatches = Math.max(1, maxBatches);
+    }
+
+    /**
+     * Writes {@code deleted: false} on rows stored before soft delete
+     * existed; the live_* partial indexes and every read skip them until
+     * then. Walks _id upwards, so each batch is an index range scan.
+     */
+    @Override
+    public long backfillLiveFlag() {
+
+        long updated = 0;
+        Object lastId = null;
+
+        while (true) {
+            Criteria criteria = where("deleted").exists(false);
+            if (lastId != null) {
+                criteria.and("_id").gt(lastId);
+            }
+
+            List<Object> ids = ids(new Query(criteria).with(Sort.by("_id")));
+            if (ids.isEmpty()) {
+                return updated;
+            }
+
+            updated += mongoTemplate.updateMulti(
+                    Query.query(where("_id").in(ids).and("deleted").exists(false)),
+                    Update.update("deleted", false),
+                    Transaction.class).getModifiedCount();
+
+            lastId = ids.get(ids.size() - 1);
+        }
+    }
+
+    /**
+     * Hard-deletes tombstones older than {@code deletedBefore}, oldest
+     * first through the tombstones index.
+     */
+    @Override
+    public long purge(Instant deletedBefore) {
+
+        long removed = 0;
+
+        for (int batch = 0; batch < maxBatches; batch++) {
+
+            Criteria expired = where("deleted").is(true).and("deletedAt").lt(deletedBefore);
+
+            List<Object> ids = ids(new Query(expired).with(Sort.by("deletedAt")));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            // re-check the tombstone so the delete can never touch a live row
+            long deleted = mongoTemplate.remove(
+                    new Query(where("_id").in(ids).and("deleted").is(true).and("deletedAt").lt(deletedBefore)),
+                    Transaction.class).getDeletedCount();
+            removed += deleted;
+            purged.increment(deleted);
+
+            if (ids.size() < batchSize || !sleep()) {
+                break;
+            }
+        }
+        return removed;
+    }
+
+    private List<Object> ids(Query query) {
+        query.limit(batchSize).fields().include("_id");
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Transaction.class))
+                .stream()
+                .map(row -> row.get("_id"))
+                .toList();
+    }
+
+    private boolean sleep() {
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.man.moneybook.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.man.moneybook.dto.transaction.TransactionFilter;
+import com.man.moneybook.dto.transaction.TransactionResponseDto;
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.enums.ExportFormat;
+import com.man.moneybook.repository.TransactionRepository;
+import com.man.moneybook.service.TransactionExportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes rows straight from a Mongo cursor to the response, flushing every
+ * {@code app.export.flush-every} rows, so heap use doesn't grow with the
+ * size of the history.
+ */
+@Service
+public class TransactionExportServiceImpl implements TransactionExportService {
+
+    private static final String CSV_HEADER =
+            "id,type,category,amount,description,counterparty,transactionDate";
+
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+    private final int flushEvery;
+
+    public TransactionExportServiceImpl(TransactionRepository transactionRepository,
+                                        ObjectMapper objectMapper,
+                                        @Value("${app.export.flush-every:500}") int flushEvery) {
+        this.transactionRepository = transactionRepository;
+        this.objectMapper = objectMapper;
+        this.flushEvery = Math.max(1, flushEvery);
+    }
+
+    @Override
+    public long export(String userId,
+                       TransactionFilter filter,
+                       ExportFormat format,
+                       OutputStream out) throws IOException {
+
+        try (Stream<Transaction> rows = transactionRepository.streamAll(userId, filter)) {
+            return format == ExportFormat.CSV
+                    ? writeCsv(rows.iterator(), out)
+                    : writeNdjson(rows.iterator(), out);
+        }
+    }
+
+    private long writeNdjson(Iterator<Transaction> rows, OutputStream out) throws IOException {
+
+        long count = 0;
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+
+            while (rows.hasNext()) {
+                writer.write(TransactionResponseDto.from(rows.next()));
+                if (++count % flushEvery == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        if (count > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return count;
+    }
+
+    private long writeCsv(Iterator<Transaction> rows, OutputStream out) throws IOException {
+
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        long count = 0;
+        while (rows.hasNext()) {
+            Transaction tx = rows.next();
+            writer.write(csv(tx.getId()));
+            writer.write(',');
+            writer.write(tx.getType() != null ? tx.getType().name() : "");
+            writer.write(',');
+            writer.write(csv(tx.getCategory()));
+            writer.write(',');
+            writer.write(tx.getAmount() != null ? tx.getAmount().toPlainString() : "");
+            writer.write(',');
+            writer.write(csv(tx.getDescription()));
+            writer.write(',');
+            writer.write(csv(tx.getCounterparty()));
+            writer.write(',');
+            writer.write(tx.getTransactionDate() != null ? tx.getTransactionDate().toString() : "");
+            writer.write('\n');
+
+            if (++count % flushEvery == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,335 @@
+package com.man.moneybook.service.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.man.moneybook.dto.transaction.BulkImportResult;
+import com.man.moneybook.dto.transaction.TransactionRequestDto;
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.enums.TransactionType;
+import com.man.moneybook.event.TransactionsImportedEvent;
+import com.man.moneybook.service.BalanceLedgerService;
+import com.man.moneybook.service.ChangeSequenceService;
+import com.man.moneybook.service.DataVersionService;
+import com.man.moneybook.service.TransactionImportService;
+import com.man.moneybook.util.CsvRecordReader;
+import com.man.moneybook.util.MoneyAccumulator;
+import com.man.moneybook.util.TransactionRules;
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams rows from the request body, validates them with the same rules
+ * as a single add, and writes them in unordered bulk inserts of
+ * {@code app.import.batch-size}. Only one batch is held in memory.
+ */
+@Service
+public class TransactionImportServiceImpl implements TransactionImportService {
+
+    private static final List<String> CSV_COLUMNS = List.of(
+            "type", "category", "amount", "description", "counterparty", "transactionDate");
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final BalanceLedgerService balanceLedgerService;
+    private final ChangeSequenceService changeSequenceService;
+    private final DataVersionService dataVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public TransactionImportServiceImpl(MongoTemplate mongoTemplate,
+                                        ObjectMapper objectMapper,
+                                        BalanceLedgerService balanceLedgerService,
+                                        ChangeSequenceService changeSequenceService,
+                                        DataVersionService dataVersionService,
+                                        ApplicationEventPublisher eventPublisher,
+                                        @Value("${app.import.batch-size:1000}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.balanceLedgerService = balanceLedgerService;
+        this.changeSequenceService = changeSequenceService;
+        this.dataVersionService = dataVersionService;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public BulkImportResult importJson(String userId, InputStream body) throws IOException {
+
+        Batch batch = new Batch(userId);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of transactions");
+            }
+
+            int row = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                row++;
+                batch.result.setReceived(row);
+
+                if (token != JsonToken.START_OBJECT) {
+                    // a nested array is skipped whole, a scalar is already consumed
+                    parser.skipChildren();
+                    batch.result.reject(row, "Row is not a JSON object");
+                    continue;
+                }
+
+                // read the whole object first so a bad field can't desync the stream
+                JsonNode node = objectMapper.readTree(parser);
+                try {
+                    batch.add(row, objectMapper.treeToValue(node, TransactionRequestDto.class));
+                } catch (JsonProcessingException ex) {
+                    batch.result.reject(row, "Unreadable row: " + ex.getOriginalMessage());
+                }
+            }
+        }
+
+        return batch.finish();
+    }
+
+    @Override
+    public BulkImportResult importCsv(String userId, InputStream body) throws IOException {
+
+        Batch batch = new Batch(userId);
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(body, StandardCharsets.UTF_8))) {
+
+            // records, not lines: quoted descriptions may span several lines
+            CsvRecordReader records = new CsvRecordReader(reader);
+
+            List<String> header = records.next();
+            if (header == null) {
+                return batch.finish();
+            }
+            header.set(0, stripBom(header.get(0)));
+
+            Map<String, Integer> columns = columnIndex(header);
+
+            List<String> record;
+            int row = 0;
+            while ((record = records.next()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                row++;
+                batch.result.setReceived(row);
+                try {
+                    batch.add(row, fromCsv(record, columns));
+                } catch (IllegalArgumentException ex) {
+                    batch.result.reject(row, ex.getMessage());
+                }
+            }
+        }
+
+        return batch.finish();
+    }
+
+    private final class Batch {
+
+        private final String userId;
+        private final BulkImportResult result = new BulkImportResult();
+        private final List<Transaction> pending = new ArrayList<>(batchSize);
+        private final List<Integer> pendingRows = new ArrayList<>(batchSize);
+
+        private Batch(String userId) {
+            this.userId = userId;
+        }
+
+        void add(int row, TransactionRequestDto dto) {
+
+            String error = validate(dto);
+            if (error != null) {
+                result.reject(row, error);
+                return;
+            }
+
+            pending.add(Transaction.builder()
+                    .userId(userId)
+                    .type(dto.getType())
+                    .category(dto.getCategory())
+                    .amount(dto.getAmount())
+                    .description(dto.getDescription())
+                    .counterparty(dto.getCounterparty())
+                    .transactionDate(dto.getTransactionDate())
+                    .build());
+            pendingRows.add(row);
+
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        BulkImportResult finish() {
+            flush();
+            return result;
+        }
+
+        private void flush() {
+
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            // one block of sequence numbers for the whole batch
+            long seq = changeSequenceService.reserve(userId, pending.size()) - pending.size();
+            Instant now = Instant.now();
+            for (Transaction tx : pending) {
+                tx.setUpdatedSeq(++seq);
+                tx.setUpdatedAt(now);
+            }
+
+            // claimed until every derived collection has the batch, see BalanceLedgerService#beginWrite
+            balanceLedgerService.beginWrite(userId);
+            try {
+                Set<Integer> failedIndexes = new HashSet<>();
+                try {
+                    mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Transaction.class)
+                            .insert(pending)
+                            .execute();
+                } catch (BulkOperationException ex) {
+                    for (BulkWriteError error : ex.getErrors()) {
+                        failedIndexes.add(error.getIndex());
+                        result.reject(pendingRows.get(error.getIndex()), error.getMessage());
+                    }
+                }
+
+                MoneyAccumulator totals = new MoneyAccumulator();
+                List<Transaction> inserted = new ArrayList<>(pending.size() - failedIndexes.size());
+                for (int i = 0; i < pending.size(); i++) {
+                    if (!failedIndexes.contains(i)) {
+                        Transaction tx = pending.get(i);
+                        totals.add(tx.getType(), tx.getAmount());
+                        inserted.add(tx);
+                    }
+                }
+                result.setImported(result.getImported() + inserted.size());
+
+                for (Map.Entry<TransactionType, BigDecimal> total : totals.toTotals().entrySet()) {
+                    balanceLedgerService.applyDelta(userId, total.getKey(), total.getValue());
+                }
+
+                if (!inserted.isEmpty()) {
+                    try {
+                        eventPublisher.publishEvent(new TransactionsImportedEvent(userId, inserted));
+                    } finally {
+                        // the rows are stored even if a listener throws
+                        dataVersionService.bump(userId);
+                    }
+                }
+            } finally {
+                balanceLedgerService.endWrite(userId);
+            }
+
+            pending.clear();
+            pendingRows.clear();
+        }
+    }
+
+    private static String validate(TransactionRequestDto dto) {
+        if (dto.getType() == null) {
+            return "Type is required";
+        }
+        if (dto.getAmount() == null) {
+            return "Amount is required";
+        }
+        if (TransactionRules.missingCounterparty(dto.getType(), dto.getCounterparty())) {
+            return "Counterparty required for loan, recovery and settlement transactions";
+        }
+        return null;
+    }
+
+    private static TransactionRequestDto fromCsv(List<String> fields, Map<String, Integer> columns) {
+
+        TransactionRequestDto dto = new TransactionRequestDto();
+
+        String type = field(fields, columns, "type");
+        if (type != null) {
+            try {
+                dto.setType(TransactionType.valueOf(type.trim().toUpperCase()));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Unknown type: " + type);
+            }
+        }
+
+        String amount = field(fields, columns, "amount");
+        if (amount != null) {
+            try {
+                dto.setAmount(new BigDecimal(amount.trim()));
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid amount: " + amount);
+            }
+        }
+
+        String date = field(fields, columns, "transactionDate");
+        if (date != null) {
+            try {
+                dto.setTransactionDate(LocalDate.parse(date.trim()));
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Invalid transactionDate: " + date);
+            }
+        }
+
+        dto.setCategory(field(fields, columns, "category"));
+        dto.setDescription(field(fields, columns, "description"));
+        dto.setCounterparty(field(fields, columns, "counterparty"));
+        return dto;
+    }
+
+    private static Map<String, Integer> columnIndex(List<String> header) {
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim();
+            for (String column : CSV_COLUMNS) {
+                if (column.equalsIgnoreCase(name)) {
+                    columns.put(column, i);
+                }
+            }
+        }
+
+        if (!columns.containsKey("type") || !columns.containsKey("amount")) {
+            throw new IllegalArgumentException(
+                    "CSV header must include at least: type, amount");
+        }
+        return columns;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String stripBom(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+}
@@ -0,0 +1,55 @@
+package com.man.moneybook.service.impl;
+
+import com.man.moneybook.dto.dashboard.DashboardSummary;
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.repository.TransactionRepository;
+import com.man.moneybook.service.TransactionService;
+import com.man.moneybook.util.MoneyAccumulator;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Service
+public class TransactionServiceImpl implements TransactionService {
+
+    private final TransactionRepository transactionRepository;
+
+    public TransactionServiceImpl(TransactionRepository transactionRepository) {
+        this.transactionRepository = transactionRepository;
+    }
+
+    @Override
+    public Transaction save(Transaction transaction) {
+        return transactionRepository.save(transaction);
+    }
+
+    @Override
+    public List<Transaction> findByUserId(String userId) {
+        return transactionRepository.findByUserId(userId);
+    }
+
+    @Override
+    public DashboardSummary summarize(List<Transaction> transactions) {
+        MoneyAccumulator totals = new MoneyAccumulator();
+        for (Transaction tx : transactions) {
+            totals.add(tx.getType(), tx.getAmount());
+        }
+        return totals.toSummary();
+    }
+
+    @Override
+    public BigDecimal calculateBalance(List<Transaction> transactions) {
+        return summarize(transactions).getBalance();
+    }
+
+    @Override
+    public BigDecimal totalLoanTaken(List<Transaction> transactions) {
+        return summarize(transactions).getTotalLoanTaken();
+    }
+
+    @Override
+    public BigDecimal totalLoanGiven(List<Transaction> transactions) {
+        return summarize(transactions).getTotalLoanGiven();
+    }
+}
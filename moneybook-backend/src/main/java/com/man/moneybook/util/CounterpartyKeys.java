@@ -0,0 +1,26 @@
+package com.man.moneybook.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+public class CounterpartyKeys {
+
+    private CounterpartyKeys() {}
+
+    // "  Ravi  Kumar" and "ravi kumar" are the same person in the ledger
+    public static String normalize(String counterparty) {
+
+        if (counterparty == null || counterparty.isBlank()) {
+            return null;
+        }
+
+        return Normalizer.normalize(counterparty, Normalizer.Form.NFKC)
+                .strip()
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    public static String displayName(String counterparty) {
+        return counterparty.strip().replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,87 @@
+package com.man.moneybook.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 records one at a time: commas, quoted fields, "" escapes,
+ * and line breaks inside quoted fields, which the CSV export emits for
+ * multi-line descriptions. Blank lines between records are skipped.
+ */
+public class CsvRecordReader {
+
+    private final Reader reader;
+    private int peeked = -2;
+
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    // null once the input is exhausted
+    public List<String> next() throws IOException {
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        boolean empty = true;
+
+        int c;
+        while ((c = read()) != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        current.append('"');
+                        read();
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append((char) c);
+                }
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                if (empty) {
+                    continue;
+                }
+                fields.add(current.toString());
+                return fields;
+            } else if (c == '"') {
+                quoted = true;
+                empty = false;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+                empty = false;
+            } else {
+                current.append((char) c);
+                empty = false;
+            }
+        }
+
+        if (empty) {
+            return null;
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+}
@@ -0,0 +1,92 @@
+package com.man.moneybook.util;
+
+import com.man.moneybook.dto.dashboard.DashboardSummary;
+import com.man.moneybook.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Single-pass per-type money totals kept as {@code long} minor units
+ * (scale 2) in an array indexed by {@link TransactionType#ordinal()}.
+ * <p>
+ * Amounts with more than two decimals, amounts beyond the long range
+ * and sums that would overflow spill into a per-type {@link BigDecimal},
+ * so results stay exact. Not thread-safe.
+ */
+public final class MoneyAccumulator {
+
+    private static final int SCALE = 2;
+    private static final long[] POW10 = {1L, 10L, 100L};
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final long[] minorUnits = new long[TYPES.length];
+
+    // allocated only on the first spill
+    private BigDecimal[] spill;
+
+    public MoneyAccumulator add(TransactionType type, BigDecimal amount) {
+
+        if (type == null || amount == null) {
+            return this;
+        }
+
+        int scale = amount.scale();
+        if (scale >= 0 && scale <= SCALE) {
+            long unscaled;
+            try {
+                // scale-0 result, so longValueExact() reads the compact value
+                unscaled = amount.movePointRight(scale).longValueExact();
+            } catch (ArithmeticException tooLarge) {
+                return addToSpill(type, amount);
+            }
+
+            long factor = POW10[SCALE - scale];
+            long units = unscaled * factor;
+            if (factor != 1 && (units / factor != unscaled)) {
+                return addToSpill(type, amount);
+            }
+
+            int i = type.ordinal();
+            long current = minorUnits[i];
+            long sum = current + units;
+
+            // signed overflow: both operands share a sign the result lacks
+            if (((current ^ sum) & (units ^ sum)) < 0) {
+                return addToSpill(type, amount);
+            }
+            minorUnits[i] = sum;
+            return this;
+        }
+
+        return addToSpill(type, amount);
+    }
+
+    public BigDecimal total(TransactionType type) {
+        int i = type.ordinal();
+        BigDecimal total = BigDecimal.valueOf(minorUnits[i], SCALE);
+        return spill != null && spill[i] != null ? total.add(spill[i]) : total;
+    }
+
+    public Map<TransactionType, BigDecimal> toTotals() {
+        Map<TransactionType, BigDecimal> totals = new EnumMap<>(TransactionType.class);
+        for (TransactionType type : TYPES) {
+            totals.put(type, total(type));
+        }
+        return totals;
+    }
+
+    public DashboardSummary toSummary() {
+        return DashboardSummary.fromTotals(toTotals());
+    }
+
+    private MoneyAccumulator addToSpill(TransactionType type, BigDecimal amount) {
+        if (spill == null) {
+            spill = new BigDecimal[TYPES.length];
+        }
+        int i = type.ordinal();
+        spill[i] = spill[i] == null ? amount : spill[i].add(amount);
+        return this;
+    }
+}
@@ -0,0 +1,46 @@
+package com.man.moneybook.util;
+
+import org.bson.types.Decimal128;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+/**
+ * Conversions for values handed to or read back from raw aggregation
+ * pipelines, which bypass the mapping layer.
+ */
+public final class MongoValues {
+
+    private MongoValues() {
+    }
+
+    // LocalDate is stored as midnight in the JVM zone
+    public static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    // zone name for $dateTrunc / $dateToString matching how dates are stored
+    public static String timezone() {
+        ZoneId zone = ZoneId.systemDefault().normalized();
+        return zone.equals(ZoneOffset.UTC) ? "UTC" : zone.getId();
+    }
+
+    public static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (value instanceof Number number) {
+            return new BigDecimal(number.toString());
+        }
+        if (value instanceof String text && !text.isBlank()) {
+            return new BigDecimal(text);
+        }
+        return BigDecimal.ZERO;
+    }
+}
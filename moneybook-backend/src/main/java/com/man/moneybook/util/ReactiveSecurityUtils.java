@@ -0,0 +1,21 @@
+package com.man.moneybook.util;
+
+import com.man.moneybook.exception.UnauthorizedException;
+import com.man.moneybook.security.UserPrincipal;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import reactor.core.publisher.Mono;
+
+// SecurityUtils for the reactive stack, where the context lives in the subscriber context
+public class ReactiveSecurityUtils {
+
+    private ReactiveSecurityUtils() {}
+
+    public static Mono<String> getCurrentUserId() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(authentication -> authentication.getPrincipal() instanceof UserPrincipal)
+                .map(authentication -> ((UserPrincipal) authentication.getPrincipal()).getId())
+                .switchIfEmpty(Mono.error(() -> new UnauthorizedException("Unauthorized")));
+    }
+}
@@ -1,5 +1,8 @@
 package com.man.moneybook.util;
 
+import com.man.moneybook.exception.UnauthorizedException;
+import com.man.moneybook.security.UserPrincipal;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 public class SecurityUtils {
@@ -11,4 +14,15 @@ public class SecurityUtils {
                 .getAuthentication()
                 .getName();
     }
+
+    public static String getCurrentUserId() {
+        Authentication authentication =
+                SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication != null
+                && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        throw new UnauthorizedException("Unauthorized");
+    }
 }
@@ -0,0 +1,26 @@
+package com.man.moneybook.util;
+
+import com.man.moneybook.enums.TransactionType;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+public class TransactionRules {
+
+    private TransactionRules() {}
+
+    // Loan, recovery and settlement transactions must name the other party
+    public static final Set<TransactionType> COUNTERPARTY_REQUIRED = EnumSet.of(
+            TransactionType.LOAN_TAKEN,
+            TransactionType.LOAN_GIVEN,
+            TransactionType.RECOVERY,
+            TransactionType.SETTLEMENT);
+
+    public static boolean missingCounterparty(TransactionType type, String counterparty) {
+        return COUNTERPARTY_REQUIRED.contains(type) && isBlank(counterparty);
+    }
+
+    public static boolean isBlank(String counterparty) {
+        return counterparty == null || counterparty.isBlank();
+    }
+}
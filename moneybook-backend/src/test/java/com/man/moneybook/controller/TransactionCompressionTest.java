@@ -0,0 +1,148 @@
+package com.man.moneybook.controller;
+
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.enums.TransactionType;
+import com.man.moneybook.repository.TransactionRepository;
+import com.man.moneybook.security.UserPrincipal;
+import com.man.moneybook.service.BalanceLedgerService;
+import com.man.moneybook.service.ChangeSequenceService;
+import com.man.moneybook.service.DashboardService;
+import com.man.moneybook.service.DataVersionService;
+import com.man.moneybook.service.IdempotencyService;
+import com.man.moneybook.service.SummaryStreamService;
+import com.man.moneybook.service.TransactionExportService;
+import com.man.moneybook.service.TransactionImportService;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.ManagementWebSecurityAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+// Compression happens in Tomcat's connector, so this needs a real server
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = TransactionCompressionTest.Config.class,
+        properties = {"management.server.port=-1", "app.cors.allowed-origins=http://localhost"})
+class TransactionCompressionTest {
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = {
+            MongoAutoConfiguration.class,
+            MongoDataAutoConfiguration.class,
+            MongoRepositoriesAutoConfiguration.class,
+            SecurityAutoConfiguration.class,
+            SecurityFilterAutoConfiguration.class,
+            UserDetailsServiceAutoConfiguration.class,
+            ManagementWebSecurityAutoConfiguration.class})
+    @Import(TransactionController.class)
+    static class Config {
+
+        // stands in for the JWT filter
+        @Bean
+        Filter authenticatedAsUser123() {
+            return (request, response, chain) -> {
+                UserPrincipal principal = new UserPrincipal("user123", "u@example.com", "", "U", "Ser");
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            };
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private TransactionRepository transactionRepository;
+
+    @MockBean
+    private DashboardService dashboardService;
+
+    @MockBean
+    private BalanceLedgerService balanceLedgerService;
+
+    @MockBean
+    private TransactionImportService transactionImportService;
+
+    @MockBean
+    private TransactionExportService transactionExportService;
+
+    @MockBean
+    private DataVersionService dataVersionService;
+
+    @MockBean
+    private SummaryStreamService summaryStreamService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @MockBean
+    private ChangeSequenceService changeSequenceService;
+
+    @Test
+    void largeListShouldBeGzippedDespiteItsETag() throws Exception {
+
+        List<Transaction> rows = IntStream.range(0, 50)
+                .mapToObj(i -> Transaction.builder()
+                        .id("tx" + i)
+                        .userId("user123")
+                        .type(TransactionType.EXPENSE)
+                        .category("Groceries")
+                        .amount(new BigDecimal("12.50"))
+                        .description("Weekly shopping run number " + i)
+                        .transactionDate(LocalDate.of(2024, 3, 1))
+                        .version(1L)
+                        .build())
+                .toList();
+
+        when(dataVersionService.etag(eq("user123"), anyString()))
+                .thenReturn("W/\"epoch-7-hash\"");
+        when(transactionRepository.findPage(eq("user123"), any(), any(), anyInt()))
+                .thenReturn(new SliceImpl<>(rows));
+
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/transactions"))
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue(HttpHeaders.ETAG)).hasValue("W/\"epoch-7-hash\"");
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+    }
+}
@@ -3,29 +3,50 @@ package com.man.moneybook.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.man.moneybook.dto.transaction.TransactionRequestDto;
 import com.man.moneybook.entity.Transaction;
-import com.man.moneybook.entity.User;
 import com.man.moneybook.enums.TransactionType;
 import com.man.moneybook.repository.TransactionRepository;
 import com.man.moneybook.repository.UserRepository;
+import com.man.moneybook.security.JwtTokenProvider;
+import com.man.moneybook.security.PrincipalCache;
+import com.man.moneybook.security.UserDetailsServiceImpl;
+import com.man.moneybook.service.BalanceLedgerService;
+import com.man.moneybook.service.ChangeSequenceService;
+import com.man.moneybook.service.DashboardService;
+import com.man.moneybook.service.DataVersionService;
+import com.man.moneybook.service.IdempotencyService;
+import com.man.moneybook.service.SummaryStreamService;
+import com.man.moneybook.service.TransactionExportService;
+import com.man.moneybook.service.TransactionImportService;
 import com.man.moneybook.util.SecurityUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.MockedStatic;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+// Security filters are off: SecurityUtils is stubbed per test instead
 @WebMvcTest(TransactionController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(SimpleMeterRegistry.class)
 class TransactionControllerTest {
 
     @Autowired
@@ -37,21 +58,45 @@ class TransactionControllerTest {
     @MockBean
     private UserRepository userRepository;
 
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private UserDetailsServiceImpl userDetailsService;
+
+    @MockBean
+    private PrincipalCache principalCache;
+
+    @MockBean
+    private DashboardService dashboardService;
+
+    @MockBean
+    private BalanceLedgerService balanceLedgerService;
+
+    @MockBean
+    private TransactionImportService transactionImportService;
+
+    @MockBean
+    private TransactionExportService transactionExportService;
+
+    @MockBean
+    private DataVersionService dataVersionService;
+
+    @MockBean
+    private SummaryStreamService summaryStreamService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @MockBean
+    private ChangeSequenceService changeSequenceService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @Test
     void shouldCreateTransactionSuccessfully() throws Exception {
 
-        // ✅ Mongo-style user
-        User user = User.builder()
-                .id("user123")
-                .email("test@gmail.com")
-                .build();
-
-        when(userRepository.findByEmail("test@gmail.com"))
-                .thenReturn(Optional.of(user));
-
         when(transactionRepository.save(any(Transaction.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -62,17 +107,46 @@ class TransactionControllerTest {
         dto.setDescription("December Salary");
         dto.setTransactionDate(LocalDate.now());
 
-        // ✅ Mock SecurityUtils.getCurrentUserEmail()
+        // ✅ Mock SecurityUtils.getCurrentUserId()
         try (MockedStatic<SecurityUtils> utilities =
                      mockStatic(SecurityUtils.class)) {
 
-            utilities.when(SecurityUtils::getCurrentUserEmail)
-                    .thenReturn("test@gmail.com");
+            utilities.when(SecurityUtils::getCurrentUserId)
+                    .thenReturn("user123");
 
             mockMvc.perform(post("/transactions")
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(objectMapper.writeValueAsString(dto)))
                     .andExpect(status().isOk());
         }
+
+        verify(dataVersionService).bump("user123");
+
+        InOrder ledger = inOrder(balanceLedgerService, transactionRepository);
+        ledger.verify(balanceLedgerService).beginWrite("user123");
+        ledger.verify(transactionRepository).save(any(Transaction.class));
+        ledger.verify(balanceLedgerService).applyDelta(eq("user123"), eq(TransactionType.INCOME), any());
+        ledger.verify(balanceLedgerService).endWrite("user123");
+    }
+
+    @Test
+    void shouldAnswerMatchingIfNoneMatchWithoutReadingData() throws Exception {
+
+        when(dataVersionService.etag(anyString(), anyString()))
+                .thenReturn("W/\"epoch-7-hash\"");
+
+        try (MockedStatic<SecurityUtils> utilities =
+                     mockStatic(SecurityUtils.class)) {
+
+            utilities.when(SecurityUtils::getCurrentUserId)
+                    .thenReturn("user123");
+
+            mockMvc.perform(get("/transactions/summary")
+                            .header(HttpHeaders.IF_NONE_MATCH, "W/\"epoch-7-hash\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, "W/\"epoch-7-hash\""));
+        }
+
+        verifyNoInteractions(dashboardService, transactionRepository);
     }
 }
@@ -0,0 +1,81 @@
+package com.man.moneybook.dto.transaction;
+
+import com.man.moneybook.entity.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionChangesTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-10T12:00:00Z");
+    private static final Instant SETTLED_BEFORE = NOW.minusSeconds(5);
+
+    @Test
+    void tokenShouldAdvanceToLastSettledRowOnly() {
+
+        List<Transaction> rows = List.of(
+                row("a", 1, NOW.minusSeconds(60), false),
+                row("b", 2, NOW.minusSeconds(30), true),
+                row("c", 3, NOW.minusSeconds(1), false),
+                row("d", 4, NOW.minusSeconds(40), false));
+
+        TransactionChanges changes = TransactionChanges.of(rows, 10, null, SETTLED_BEFORE, NOW);
+
+        assertThat(changes.getChanged()).extracting(TransactionResponseDto::getId)
+                .containsExactly("a", "c", "d");
+        assertThat(changes.getDeleted()).containsExactly("b");
+
+        // c was written inside the settle window: the token stops before it
+        SyncToken next = SyncToken.decode(changes.getNext());
+        assertThat(next.seq()).isEqualTo(2);
+        assertThat(next.id()).isEqualTo("b");
+        assertThat(next.issuedAt()).isEqualTo(NOW);
+        assertThat(changes.isHasMore()).isFalse();
+    }
+
+    @Test
+    void fullSettledPageShouldAskForMore() {
+
+        List<Transaction> rows = List.of(
+                row("a", 1, NOW.minusSeconds(60), false),
+                row("b", 2, NOW.minusSeconds(60), false),
+                row("c", 3, NOW.minusSeconds(60), false));
+
+        TransactionChanges changes = TransactionChanges.of(rows, 2, null, SETTLED_BEFORE, NOW);
+
+        assertThat(changes.getChanged()).hasSize(2);
+        assertThat(SyncToken.decode(changes.getNext()).id()).isEqualTo("b");
+        assertThat(changes.isHasMore()).isTrue();
+    }
+
+    @Test
+    void emptyPageShouldKeepPositionWithFreshIssueTime() {
+
+        SyncToken since = new SyncToken(7, "x", NOW.minusSeconds(3600));
+
+        TransactionChanges changes = TransactionChanges.of(List.of(), 10, since, SETTLED_BEFORE, NOW);
+
+        assertThat(SyncToken.decode(changes.getNext())).isEqualTo(since.reissued(NOW));
+        assertThat(changes.isHasMore()).isFalse();
+    }
+
+    @Test
+    void malformedTokenShouldBeRejected() {
+        assertThatThrownBy(() -> SyncToken.decode("bm90LWEtdG9rZW4"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid sync token");
+    }
+
+    private static Transaction row(String id, long seq, Instant updatedAt, boolean deleted) {
+        return Transaction.builder()
+                .id(id)
+                .updatedSeq(seq)
+                .updatedAt(updatedAt)
+                .deleted(deleted)
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.man.moneybook.repository;
+
+import com.man.moneybook.config.MongoIndexInitializer;
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.entity.User;
+import com.man.moneybook.enums.TransactionType;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataMongoTest
+@Import(MongoIndexInitializer.class)
+class TransactionIndexTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void seed() {
+        transactionRepository.save(Transaction.builder()
+                .userId("indexUser")
+                .type(TransactionType.LOAN_GIVEN)
+                .amount(BigDecimal.TEN)
+                .counterparty("Ravi")
+                .transactionDate(LocalDate.now())
+                .build());
+    }
+
+    @Test
+    void listingByUserShouldUseDateIndex() {
+
+        Document plan = explain("transactions",
+                new Document("userId", "indexUser").append("deleted", false),
+                new Document("transactionDate", -1).append("_id", -1));
+
+        assertThat(plan.toJson())
+                .contains("IXSCAN")
+                .contains("live_user_date_id")
+                .doesNotContain("COLLSCAN");
+    }
+
+    @Test
+    void counterpartyLookupShouldUseCounterpartyIndex() {
+
+        Document plan = explain("transactions",
+                new Document("userId", "indexUser")
+                        .append("deleted", false)
+                        .append("counterparty", "Ravi"),
+                null);
+
+        assertThat(plan.toJson())
+                .contains("IXSCAN")
+                .contains("live_user_counterparty")
+                .doesNotContain("COLLSCAN");
+    }
+
+    @Test
+    void typeFilterShouldUseTypeIndex() {
+
+        Document plan = explain("transactions",
+                new Document("userId", "indexUser")
+                        .append("deleted", false)
+                        .append("type", TransactionType.LOAN_GIVEN.name()),
+                null);
+
+        assertThat(plan.toJson())
+                .contains("IXSCAN")
+                .doesNotContain("COLLSCAN");
+    }
+
+    @Test
+    void emailLookupShouldUseUniqueIndex() {
+
+        Document plan = explain(
+                mongoTemplate.getCollectionName(User.class),
+                new Document("email", "someone@example.com"),
+                null);
+
+        assertThat(plan.toJson())
+                .contains("IXSCAN")
+                .contains("email_unique")
+                .doesNotContain("COLLSCAN");
+    }
+
+    @Test
+    void declaredIndexesShouldExist() {
+
+        List<String> names = mongoTemplate.indexOps(Transaction.class)
+                .getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .toList();
+
+        assertThat(names)
+                .contains("live_user_date_id", "live_user_type", "live_user_counterparty", "tombstones")
+                .doesNotContain("user_date_id", "user_type", "user_counterparty");
+    }
+
+    @Test
+    void purgeScanShouldUseTombstoneIndex() {
+
+        Document plan = explain("transactions",
+                new Document("deleted", true)
+                        .append("deletedAt", new Document("$lt", new Date())),
+                new Document("deletedAt", 1));
+
+        assertThat(plan.toJson())
+                .contains("IXSCAN")
+                .contains("tombstones")
+                .doesNotContain("COLLSCAN");
+    }
+
+    private Document explain(String collection, Document filter, Document sort) {
+
+        var find = mongoTemplate.getCollection(collection).find(filter);
+        if (sort != null) {
+            find = find.sort(sort);
+        }
+        return find.explain().get("queryPlanner", Document.class)
+                .get("winningPlan", Document.class);
+    }
+}
@@ -1,5 +1,8 @@
 package com.man.moneybook.repository;
 
+import com.man.moneybook.dto.dashboard.DashboardSummary;
+import com.man.moneybook.dto.dashboard.TypeTotal;
+import com.man.moneybook.dto.transaction.SyncToken;
 import com.man.moneybook.entity.Transaction;
 import com.man.moneybook.enums.TransactionType;
 import org.junit.jupiter.api.Test;
@@ -7,8 +10,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -49,4 +55,127 @@ class TransactionRepositoryTest {
         assertThat(result).isEmpty();
     }
 
+    @Test
+    void deletedTransactionShouldDisappearFromReads() {
+
+        String userId = "tombstoneUser";
+
+        Transaction kept = transactionRepository.save(Transaction.builder()
+                .userId(userId)
+                .type(TransactionType.EXPENSE)
+                .amount(BigDecimal.valueOf(40))
+                .transactionDate(LocalDate.now())
+                .build());
+        Transaction gone = transactionRepository.save(Transaction.builder()
+                .userId(userId)
+                .type(TransactionType.EXPENSE)
+                .amount(BigDecimal.valueOf(60))
+                .transactionDate(LocalDate.now())
+                .build());
+
+        Transaction before = transactionRepository.markDeleted(
+                gone.getId(), userId, gone.getVersion(), 3L, Instant.now());
+
+        assertThat(before.isDeleted()).isFalse();
+        assertThat(transactionRepository.findByUserId(userId))
+                .extracting(Transaction::getId)
+                .containsExactly(kept.getId());
+        assertThat(transactionRepository.sumAmountByType(userId))
+                .singleElement()
+                .satisfies(total -> assertThat(total.getTotal()).isEqualByComparingTo("40"));
+
+        // already a tombstone: nothing left to delete
+        assertThat(transactionRepository.markDeleted(gone.getId(), userId, null, 4L, Instant.now()))
+                .isNull();
+    }
+
+    @Test
+    void changesShouldSeekPastTokenAndIncludeTombstones() {
+
+        String userId = "syncUser";
+
+        List<Transaction> saved = new ArrayList<>();
+        for (long seq = 1; seq <= 3; seq++) {
+            saved.add(transactionRepository.save(Transaction.builder()
+                    .userId(userId)
+                    .type(TransactionType.INCOME)
+                    .amount(BigDecimal.valueOf(seq))
+                    .updatedSeq(seq)
+                    .build()));
+        }
+        transactionRepository.markDeleted(saved.get(0).getId(), userId, null, 4L, Instant.now());
+
+        // full sync: live rows only, in sequence order
+        assertThat(transactionRepository.findChanges(userId, null, 10))
+                .extracting(Transaction::getUpdatedSeq)
+                .containsExactly(2L, 3L);
+
+        // past seq 2: the update at 3 and the delete at 4
+        List<Transaction> changes = transactionRepository.findChanges(
+                userId, SyncToken.after(saved.get(1), Instant.now()), 10);
+
+        assertThat(changes)
+                .extracting(Transaction::getUpdatedSeq)
+                .containsExactly(3L, 4L);
+        assertThat(changes.get(1).isDeleted()).isTrue();
+    }
+
+    @Test
+    void aggregatedSummaryShouldMatchInMemoryComputation() {
+
+        String userId = "parityUser";
+        Random random = new Random(42);
+        TransactionType[] types = TransactionType.values();
+
+        List<Transaction> txs = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            txs.add(Transaction.builder()
+                    .userId(i % 10 == 0 ? "otherUser" : userId)
+                    .type(types[random.nextInt(types.length)])
+                    .amount(BigDecimal.valueOf(random.nextInt(1_000_000), 2))
+                    .counterparty("Someone")
+                    .transactionDate(LocalDate.now().minusDays(i))
+                    .build());
+        }
+        transactionRepository.saveAll(txs);
+
+        DashboardSummary expected =
+                inMemorySummary(transactionRepository.findByUserId(userId));
+
+        DashboardSummary actual = DashboardSummary.fromTotals(
+                TypeTotal.asMap(transactionRepository.sumAmountByType(userId)));
+
+        assertThat(actual.getBalance())
+                .isEqualByComparingTo(expected.getBalance());
+        assertThat(actual.getTotalLoanTaken())
+                .isEqualByComparingTo(expected.getTotalLoanTaken());
+        assertThat(actual.getTotalLoanGiven())
+                .isEqualByComparingTo(expected.getTotalLoanGiven());
+    }
+
+    // Reference implementation: the original stream-based dashboard math
+    private DashboardSummary inMemorySummary(List<Transaction> txs) {
+
+        BigDecimal balance = txs.stream()
+                .map(tx -> switch (tx.getType()) {
+                    case INCOME, LOAN_TAKEN, RECOVERY -> tx.getAmount();
+                    case EXPENSE, LOAN_GIVEN, SETTLEMENT -> tx.getAmount().negate();
+                })
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal loanTaken = sumOf(txs, TransactionType.LOAN_TAKEN)
+                .subtract(sumOf(txs, TransactionType.SETTLEMENT));
+
+        BigDecimal loanGiven = sumOf(txs, TransactionType.LOAN_GIVEN)
+                .subtract(sumOf(txs, TransactionType.RECOVERY));
+
+        return new DashboardSummary(balance, loanTaken, loanGiven);
+    }
+
+    private BigDecimal sumOf(List<Transaction> txs, TransactionType type) {
+        return txs.stream()
+                .filter(t -> t.getType() == type)
+                .map(Transaction::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
 }
@@ -0,0 +1,57 @@
+package com.man.moneybook.security;
+
+import com.man.moneybook.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingExecutorTest {
+
+    @Test
+    void shouldRefuseAtOnceWhenQueueIsFull() throws Exception {
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingExecutor executor =
+                new PasswordHashingExecutor(1, 1, Duration.ofSeconds(2), registry);
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        CompletableFuture<String> running = executor.submit(() -> {
+            started.countDown();
+            await(release);
+            return "first";
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> queued = executor.submit(() -> "second");
+        assertThat(executor.queued()).isEqualTo(1);
+
+        assertThatThrownBy(() -> executor.submit(() -> "third"))
+                .isInstanceOf(ServiceBusyException.class)
+                .extracting(ex -> ((ServiceBusyException) ex).getRetryAfter())
+                .isEqualTo(Duration.ofSeconds(2));
+        assertThat(registry.counter("moneybook.auth.hashing.rejected").count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+
+        executor.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
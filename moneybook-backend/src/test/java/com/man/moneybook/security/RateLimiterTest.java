@@ -0,0 +1,67 @@
+package com.man.moneybook.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    // auth: burst 3, one token every 10 s; api: burst 2, one token every 100 ms
+    private final RateLimiter limiter = new RateLimiter(
+            true, 3, 0.1, 2, 10, Duration.ofMinutes(1), 1000, registry);
+
+    @Test
+    void shouldAllowBurstThenAskToRetryAfterRefill() {
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(RateLimiter.Group.AUTH, "10.0.0.1")).isZero();
+        }
+
+        long wait = limiter.tryAcquire(RateLimiter.Group.AUTH, "10.0.0.1");
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(10));
+        assertThat(RateLimiter.retryAfterSeconds(wait)).isBetween(1L, 10L);
+
+        assertThat(registry.counter("moneybook.ratelimit.requests",
+                "group", "auth", "outcome", "limited").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepKeysAndGroupsApart() {
+
+        limiter.tryAcquire(RateLimiter.Group.AUTH, "10.0.0.1");
+        limiter.tryAcquire(RateLimiter.Group.AUTH, "10.0.0.1");
+        limiter.tryAcquire(RateLimiter.Group.AUTH, "10.0.0.1");
+
+        assertThat(limiter.tryAcquire(RateLimiter.Group.AUTH, "10.0.0.2")).isZero();
+        assertThat(limiter.tryAcquire(RateLimiter.Group.API, "10.0.0.1")).isZero();
+    }
+
+    @Test
+    void shouldRefillOverTime() throws InterruptedException {
+
+        assertThat(limiter.tryAcquire(RateLimiter.Group.API, "user123")).isZero();
+        assertThat(limiter.tryAcquire(RateLimiter.Group.API, "user123")).isZero();
+        assertThat(limiter.tryAcquire(RateLimiter.Group.API, "user123")).isPositive();
+
+        Thread.sleep(150);
+
+        assertThat(limiter.tryAcquire(RateLimiter.Group.API, "user123")).isZero();
+    }
+
+    @Test
+    void shouldAllowEverythingWhenDisabled() {
+
+        RateLimiter disabled = new RateLimiter(
+                false, 1, 0.1, 1, 0.1, Duration.ofMinutes(1), 1000, registry);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(disabled.tryAcquire(RateLimiter.Group.AUTH, "10.0.0.1")).isZero();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.man.moneybook.service;
+
+import com.man.moneybook.dto.analytics.CategorySpend;
+import com.man.moneybook.dto.analytics.MonthlyFlow;
+import com.man.moneybook.entity.MonthlyRollup;
+import com.man.moneybook.enums.TransactionType;
+import com.man.moneybook.service.impl.AnalyticsServiceImpl;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnalyticsServiceTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2024, 1, 1);
+    private static final LocalDate FEB_29 = LocalDate.of(2024, 2, 29);
+
+    private MonthlyRollupService monthlyRollupService;
+    private AnalyticsService analyticsService;
+
+    @BeforeEach
+    void setUp() {
+        monthlyRollupService = mock(MonthlyRollupService.class);
+        analyticsService = new AnalyticsServiceImpl(
+                mock(MongoTemplate.class),
+                monthlyRollupService,
+                mock(CounterpartyLedgerService.class),
+                10, 2, Duration.ofMinutes(10));
+
+        when(monthlyRollupService.findRange(eq("u1"), any(), any())).thenReturn(List.of(
+                rollup("2024-01", TransactionType.INCOME, "Salary", "1000", 1),
+                rollup("2024-01", TransactionType.EXPENSE, "Food", "150", 3),
+                rollup("2024-02", TransactionType.EXPENSE, "Food", "50", 1),
+                rollup("2024-02", TransactionType.EXPENSE, "Rent", "400", 1),
+                rollup("2024-02", TransactionType.LOAN_GIVEN, null, "999", 1)));
+    }
+
+    @Test
+    void monthAlignedFlowShouldBeServedFromRollups() {
+
+        List<MonthlyFlow> flow = analyticsService.monthlyFlow("u1", JAN_1, FEB_29);
+
+        assertThat(flow).extracting(MonthlyFlow::getMonth).containsExactly("2024-01", "2024-02");
+        assertThat(flow.get(0).getNet()).isEqualByComparingTo("850");
+        assertThat(flow.get(1).getExpense()).isEqualByComparingTo("450");
+        assertThat(flow.get(1).getNet()).isEqualByComparingTo("-450");
+    }
+
+    @Test
+    void categorySpendShouldSumExpensesAcrossMonths() {
+
+        List<CategorySpend> spend = analyticsService.spendByCategory("u1", JAN_1, FEB_29);
+
+        assertThat(spend).extracting(CategorySpend::getCategory).containsExactly("Rent", "Food");
+        assertThat(spend.get(1).getTotal()).isEqualByComparingTo("200");
+        assertThat(spend.get(1).getCount()).isEqualTo(4);
+    }
+
+    @Test
+    void repeatedQueryShouldBeCachedUntilTheUsersNextWrite() {
+
+        analyticsService.monthlyFlow("u1", JAN_1, FEB_29);
+        analyticsService.monthlyFlow("u1", JAN_1, FEB_29);
+        verify(monthlyRollupService, times(1)).findRange("u1", YearMonth.of(2024, 1), YearMonth.of(2024, 2));
+
+        analyticsService.evict("u1");
+        analyticsService.monthlyFlow("u1", JAN_1, FEB_29);
+        verify(monthlyRollupService, times(2)).findRange("u1", YearMonth.of(2024, 1), YearMonth.of(2024, 2));
+    }
+
+    @Test
+    void failedComputationShouldNotBeCached() {
+
+        when(monthlyRollupService.findRange(eq("u2"), any(), any()))
+                .thenThrow(new IllegalStateException("down"))
+                .thenReturn(List.of());
+
+        assertThatThrownBy(() -> analyticsService.monthlyFlow("u2", JAN_1, FEB_29))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(analyticsService.monthlyFlow("u2", JAN_1, FEB_29)).isEmpty();
+    }
+
+    @Test
+    void partialMonthRangeShouldAggregateTransactions() {
+
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        AnalyticsService service = new AnalyticsServiceImpl(
+                mongoTemplate, monthlyRollupService, mock(CounterpartyLedgerService.class),
+                10, 10, Duration.ofMinutes(10));
+
+        when(mongoTemplate.getCollectionName(any())).thenReturn("transactions");
+        when(mongoTemplate.aggregate(any(Aggregation.class),
+                eq("transactions"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(
+                        new Document("_id", "Food").append("total", new BigDecimal("30")).append("count", 2)),
+                        new Document()));
+
+        List<CategorySpend> spend = service.spendByCategory("u1", JAN_1.plusDays(4), FEB_29);
+
+        assertThat(spend).singleElement().satisfies(row -> {
+            assertThat(row.getCategory()).isEqualTo("Food");
+            assertThat(row.getTotal()).isEqualByComparingTo("30");
+            assertThat(row.getCount()).isEqualTo(2);
+        });
+        verify(monthlyRollupService, times(0)).findRange(any(), any(), any());
+    }
+
+    private static MonthlyRollup rollup(String month, TransactionType type, String category,
+                                        String total, long count) {
+        return MonthlyRollup.builder()
+                .userId("u1")
+                .month(month)
+                .type(type)
+                .category(category)
+                .total(new BigDecimal(total))
+                .count(count)
+                .build();
+    }
+}
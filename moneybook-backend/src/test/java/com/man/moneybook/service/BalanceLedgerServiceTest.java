@@ -0,0 +1,105 @@
+package com.man.moneybook.service;
+
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.entity.UserBalance;
+import com.man.moneybook.enums.TransactionType;
+import com.man.moneybook.repository.TransactionRepository;
+import com.man.moneybook.service.impl.BalanceLedgerServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataMongoTest
+@Import(BalanceLedgerServiceImpl.class)
+class BalanceLedgerServiceTest {
+
+    @Autowired
+    private BalanceLedgerService balanceLedgerService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void deltaBeforeFirstRebuildShouldNotCountAsLedger() {
+
+        String userId = "ledgerFirstWriteUser";
+
+        transactionRepository.save(income(userId, "100"));
+        balanceLedgerService.applyDelta(userId, TransactionType.INCOME, new BigDecimal("100"));
+
+        UserBalance partial = mongoTemplate.findById(userId, UserBalance.class);
+        assertThat(partial.isComplete()).isFalse();
+        assertThat(partial.getGeneration()).isEqualTo(1L);
+
+        transactionRepository.save(income(userId, "50"));
+
+        UserBalance balance = balanceLedgerService.getBalance(userId);
+        assertThat(balance.isComplete()).isTrue();
+        assertThat(balance.getIncome()).isEqualByComparingTo("150");
+        assertThat(balance.getGeneration()).isEqualTo(2L);
+    }
+
+    @Test
+    void rebuildShouldReplaceOnlyTheGenerationItRead() {
+
+        String userId = "ledgerReconcileUser";
+
+        transactionRepository.save(income(userId, "30"));
+        balanceLedgerService.rebuild(userId);
+
+        // drifted ledger, then a delta on top of it
+        balanceLedgerService.applyDelta(userId, TransactionType.INCOME, new BigDecimal("999"));
+        transactionRepository.save(income(userId, "20"));
+        balanceLedgerService.applyDelta(userId, TransactionType.INCOME, new BigDecimal("20"));
+
+        UserBalance rebuilt = balanceLedgerService.rebuild(userId);
+
+        assertThat(rebuilt.getIncome()).isEqualByComparingTo("50");
+        assertThat(mongoTemplate.findById(userId, UserBalance.class).getGeneration())
+                .isEqualTo(4L);
+    }
+
+    @Test
+    void rebuildShouldNotReplaceWhileAWriteIsInFlight() {
+
+        String userId = "ledgerInFlightUser";
+
+        transactionRepository.save(income(userId, "30"));
+        balanceLedgerService.rebuild(userId);
+
+        // stored and visible to the aggregation, delta not applied yet
+        balanceLedgerService.beginWrite(userId);
+        transactionRepository.save(income(userId, "20"));
+
+        UserBalance unsaved = balanceLedgerService.rebuild(userId);
+        assertThat(unsaved.getIncome()).isEqualByComparingTo("50");
+        assertThat(mongoTemplate.findById(userId, UserBalance.class).getIncome())
+                .isEqualByComparingTo("30");
+
+        balanceLedgerService.applyDelta(userId, TransactionType.INCOME, new BigDecimal("20"));
+        balanceLedgerService.endWrite(userId);
+
+        assertThat(balanceLedgerService.rebuild(userId).getIncome()).isEqualByComparingTo("50");
+        assertThat(mongoTemplate.findById(userId, UserBalance.class).getIncome())
+                .isEqualByComparingTo("50");
+    }
+
+    private static Transaction income(String userId, String amount) {
+        return Transaction.builder()
+                .userId(userId)
+                .type(TransactionType.INCOME)
+                .amount(new BigDecimal(amount))
+                .transactionDate(LocalDate.now())
+                .build();
+    }
+}
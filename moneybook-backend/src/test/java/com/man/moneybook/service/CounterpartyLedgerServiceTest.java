@@ -0,0 +1,67 @@
+package com.man.moneybook.service;
+
+import com.man.moneybook.entity.CounterpartyLedger;
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.enums.TransactionType;
+import com.man.moneybook.repository.TransactionRepository;
+import com.man.moneybook.service.impl.CounterpartyLedgerServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataMongoTest
+@Import(CounterpartyLedgerServiceImpl.class)
+class CounterpartyLedgerServiceTest {
+
+    @Autowired
+    private CounterpartyLedgerService counterpartyLedgerService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void rebuildShouldReplaceDriftedEntriesAndDropStaleOnes() {
+
+        String userId = "ledgerRebuildUser";
+
+        Transaction loan = transactionRepository.save(Transaction.builder()
+                .userId(userId)
+                .type(TransactionType.LOAN_GIVEN)
+                .amount(new BigDecimal("200"))
+                .counterparty("Ravi")
+                .transactionDate(LocalDate.now())
+                .build());
+        counterpartyLedgerService.applyChange(null, loan);
+
+        // drift: an entry with no transactions behind it, and a wrong amount
+        mongoTemplate.insert(CounterpartyLedger.builder()
+                .id(CounterpartyLedger.idOf(userId, "ghost"))
+                .userId(userId)
+                .key("ghost")
+                .receivable(BigDecimal.ONE)
+                .payable(BigDecimal.ZERO)
+                .outstanding(BigDecimal.ONE)
+                .build());
+        counterpartyLedgerService.applyChange(null, loan);
+
+        assertThat(counterpartyLedgerService.rebuild(userId)).isEqualTo(1);
+
+        List<CounterpartyLedger> entries = counterpartyLedgerService.findAll(userId);
+        assertThat(entries).singleElement().satisfies(entry -> {
+            assertThat(entry.getKey()).isEqualTo("ravi");
+            assertThat(entry.getOutstanding()).isEqualByComparingTo("200");
+            assertThat(entry.getGeneration()).isEqualTo(3L);
+        });
+    }
+}
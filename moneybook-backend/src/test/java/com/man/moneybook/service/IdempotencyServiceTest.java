@@ -0,0 +1,106 @@
+package com.man.moneybook.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.man.moneybook.dto.transaction.TransactionRequestDto;
+import com.man.moneybook.dto.transaction.TransactionResponseDto;
+import com.man.moneybook.entity.IdempotencyRecord;
+import com.man.moneybook.enums.TransactionType;
+import com.man.moneybook.exception.IdempotencyConflictException;
+import com.man.moneybook.service.impl.IdempotencyServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private final IdempotencyService service = new IdempotencyServiceImpl(
+            mongoTemplate,
+            new ObjectMapper().registerModule(new JavaTimeModule()),
+            100, Duration.ofMinutes(10),
+            new SimpleMeterRegistry());
+
+    private final AtomicInteger writes = new AtomicInteger();
+
+    @Test
+    void shouldReplayFromCacheWithoutWritingAgain() {
+
+        TransactionResponseDto first = service.execute("user123", "key-1", request("100"), this::write);
+        TransactionResponseDto retry = service.execute("user123", "key-1", request("100"), this::write);
+
+        assertThat(retry).isSameAs(first);
+        assertThat(writes).hasValue(1);
+        verify(mongoTemplate, times(1)).insert(any(IdempotencyRecord.class));
+        verify(mongoTemplate, never()).findById(any(), eq(IdempotencyRecord.class));
+    }
+
+    @Test
+    void shouldRefuseSameKeyWithDifferentBody() {
+
+        service.execute("user123", "key-1", request("100"), this::write);
+
+        assertThatThrownBy(() -> service.execute("user123", "key-1", request("999"), this::write))
+                .isInstanceOf(IdempotencyConflictException.class)
+                .extracting(ex -> ((IdempotencyConflictException) ex).getStatus())
+                .isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(writes).hasValue(1);
+    }
+
+    @Test
+    void shouldAnswerConflictWhileAnotherInstanceHoldsTheClaim() {
+
+        when(mongoTemplate.insert(any(IdempotencyRecord.class)))
+                .thenThrow(new DuplicateKeyException("claimed"));
+        when(mongoTemplate.findById("user123|key-1", IdempotencyRecord.class))
+                .thenReturn(IdempotencyRecord.builder().id("user123|key-1").requestHash("x").build());
+
+        assertThatThrownBy(() -> service.execute("user123", "key-1", request("100"), this::write))
+                .isInstanceOf(IdempotencyConflictException.class)
+                .extracting(ex -> ((IdempotencyConflictException) ex).getStatus())
+                .isEqualTo(HttpStatus.CONFLICT);
+        assertThat(writes).hasValue(0);
+    }
+
+    @Test
+    void shouldReleaseClaimWhenWriteFails() {
+
+        assertThatThrownBy(() -> service.execute("user123", "key-1", request("100"), () -> {
+            throw new IllegalArgumentException("Counterparty required");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        verify(mongoTemplate).remove(any(Query.class),
+                eq(IdempotencyRecord.class));
+
+        service.execute("user123", "key-1", request("100"), this::write);
+        assertThat(writes).hasValue(1);
+    }
+
+    private TransactionResponseDto write() {
+        writes.incrementAndGet();
+        return new TransactionResponseDto("tx-" + writes.get(), TransactionType.INCOME,
+                "Salary", BigDecimal.TEN, null, null, null, 0L);
+    }
+
+    private static TransactionRequestDto request(String amount) {
+        TransactionRequestDto dto = new TransactionRequestDto();
+        dto.setType(TransactionType.INCOME);
+        dto.setCategory("Salary");
+        dto.setAmount(new BigDecimal(amount));
+        return dto;
+    }
+}
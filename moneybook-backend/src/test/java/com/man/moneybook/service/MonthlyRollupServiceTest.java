@@ -0,0 +1,142 @@
+package com.man.moneybook.service;
+
+import com.man.moneybook.entity.MonthlyRollup;
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.enums.TransactionType;
+import com.man.moneybook.repository.TransactionRepository;
+import com.man.moneybook.service.impl.BalanceLedgerServiceImpl;
+import com.man.moneybook.service.impl.MonthlyRollupServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataMongoTest
+@Import({MonthlyRollupServiceImpl.class, BalanceLedgerServiceImpl.class})
+class MonthlyRollupServiceTest {
+
+    @Autowired
+    private MonthlyRollupService monthlyRollupService;
+
+    @Autowired
+    private BalanceLedgerService balanceLedgerService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void editAcrossMonthsShouldMoveTheAmountBetweenBuckets() {
+
+        String userId = "rollupMoveUser";
+
+        Transaction created = transactionRepository.save(Transaction.builder()
+                .userId(userId)
+                .type(TransactionType.EXPENSE)
+                .category("Food")
+                .amount(new BigDecimal("40.50"))
+                .transactionDate(LocalDate.of(2024, 1, 31))
+                .build());
+        monthlyRollupService.applyChange(null, created);
+
+        Transaction before = created.toBuilder().build();
+        created.setTransactionDate(LocalDate.of(2024, 2, 1));
+        created.setAmount(new BigDecimal("45.00"));
+        monthlyRollupService.applyChange(before, transactionRepository.save(created));
+
+        List<MonthlyRollup> rollups = monthlyRollupService.findRange(
+                userId, YearMonth.of(2024, 1), YearMonth.of(2024, 2));
+
+        assertThat(rollups).hasSize(1);
+        assertThat(rollups.get(0).getMonth()).isEqualTo("2024-02");
+        assertThat(rollups.get(0).getTotal()).isEqualByComparingTo("45.00");
+        assertThat(rollups.get(0).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuildShouldMatchIncrementalBuckets() {
+
+        String userId = "rollupParityUser";
+
+        for (int day = 1; day <= 60; day++) {
+            Transaction tx = transactionRepository.save(Transaction.builder()
+                    .userId(userId)
+                    .type(day % 3 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE)
+                    .category(day % 2 == 0 ? "Rent" : "Food")
+                    .amount(BigDecimal.valueOf(day * 101L, 2))
+                    .transactionDate(LocalDate.of(2024, 1, 1).plusDays(day))
+                    .build());
+            monthlyRollupService.applyChange(null, tx);
+        }
+
+        List<MonthlyRollup> incremental = monthlyRollupService.findRange(userId, null, null);
+
+        monthlyRollupService.rebuild(userId);
+        List<MonthlyRollup> rebuilt = monthlyRollupService.findRange(userId, null, null);
+
+        assertThat(rebuilt).hasSameSizeAs(incremental);
+        for (MonthlyRollup expected : incremental) {
+            MonthlyRollup actual = rebuilt.stream()
+                    .filter(r -> r.getId().equals(expected.getId()))
+                    .findFirst()
+                    .orElseThrow();
+            assertThat(actual.getTotal()).isEqualByComparingTo(expected.getTotal());
+            assertThat(actual.getCount()).isEqualTo(expected.getCount());
+        }
+    }
+
+    @Test
+    void rebuildShouldWaitForWritesInFlightAndDropStaleBuckets() {
+
+        String userId = "rollupRebuildUser";
+
+        monthlyRollupService.applyChange(null, transactionRepository.save(food(userId, "10", 5)));
+
+        // a bucket with no transactions behind it
+        mongoTemplate.insert(MonthlyRollup.builder()
+                .id(MonthlyRollup.idOf(userId, YearMonth.of(2023, 12), TransactionType.EXPENSE, "Ghost"))
+                .userId(userId)
+                .month("2023-12")
+                .type(TransactionType.EXPENSE)
+                .category("Ghost")
+                .total(BigDecimal.ONE)
+                .count(1)
+                .build());
+
+        // stored and visible to the aggregation, rollup delta not applied yet
+        balanceLedgerService.beginWrite(userId);
+        Transaction late = transactionRepository.save(food(userId, "7", 6));
+
+        assertThat(monthlyRollupService.rebuild(userId)).isZero();
+        assertThat(monthlyRollupService.findRange(userId, null, null)).hasSize(2);
+
+        monthlyRollupService.applyChange(null, late);
+        balanceLedgerService.endWrite(userId);
+
+        assertThat(monthlyRollupService.rebuild(userId)).isEqualTo(1);
+        assertThat(monthlyRollupService.findRange(userId, null, null)).singleElement().satisfies(rollup -> {
+            assertThat(rollup.getTotal()).isEqualByComparingTo("17");
+            assertThat(rollup.getCount()).isEqualTo(2);
+        });
+    }
+
+    private static Transaction food(String userId, String amount, int day) {
+        return Transaction.builder()
+                .userId(userId)
+                .type(TransactionType.EXPENSE)
+                .category("Food")
+                .amount(new BigDecimal(amount))
+                .transactionDate(LocalDate.of(2024, 3, day))
+                .build();
+    }
+}
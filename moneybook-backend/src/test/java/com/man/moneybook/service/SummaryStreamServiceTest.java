@@ -0,0 +1,54 @@
+package com.man.moneybook.service;
+
+import com.man.moneybook.dto.dashboard.DashboardSummary;
+import com.man.moneybook.event.TransactionChangedEvent;
+import com.man.moneybook.event.TransactionsImportedEvent;
+import com.man.moneybook.service.impl.SummaryStreamServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class SummaryStreamServiceTest {
+
+    private final DashboardService dashboardService = mock(DashboardService.class);
+
+    private final SummaryStreamServiceImpl service = new SummaryStreamServiceImpl(
+            dashboardService, Duration.ofMinutes(5), Duration.ofMillis(50), Duration.ofMinutes(5),
+            2, Duration.ofSeconds(10), new SimpleMeterRegistry());
+
+    @Test
+    void shouldReadOncePerBurstAndFanOutToEveryStream() {
+
+        when(dashboardService.getSummary("user123")).thenReturn(
+                new DashboardSummary(BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO));
+
+        service.subscribe("user123");
+        service.subscribe("user123");
+        service.subscribe("user123");
+        assertThat(service.subscriberCount()).isEqualTo(3);
+
+        // one snapshot per subscribe
+        verify(dashboardService, times(3)).getSummary("user123");
+
+        service.onTransactionChanged(new TransactionChangedEvent("user123", null, null));
+        service.onTransactionsImported(new TransactionsImportedEvent("user123", List.of()));
+        service.onTransactionChanged(new TransactionChangedEvent("user123", null, null));
+
+        verify(dashboardService, timeout(1000).times(4)).getSummary("user123");
+        verify(dashboardService, after(200).times(4)).getSummary("user123");
+    }
+
+    @Test
+    void shouldNotReadForUsersWithoutStreams() {
+
+        service.onTransactionChanged(new TransactionChangedEvent("nobody", null, null));
+
+        verify(dashboardService, after(200).never()).getSummary(anyString());
+    }
+}
@@ -0,0 +1,108 @@
+package com.man.moneybook.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.man.moneybook.dto.transaction.BulkImportResult;
+import com.man.moneybook.entity.Transaction;
+import com.man.moneybook.service.impl.TransactionImportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionImportServiceTest {
+
+    private final List<Transaction> inserted = new ArrayList<>();
+    private BulkOperations bulkOperations;
+    private TransactionImportService importService;
+
+    @BeforeEach
+    void setUp() {
+
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        bulkOperations = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(Transaction.class)))
+                .thenReturn(bulkOperations);
+        // the importer reuses its batch list, so copy the rows as they are written
+        when(bulkOperations.insert(anyList())).thenAnswer(call -> {
+            inserted.addAll(call.getArgument(0));
+            return bulkOperations;
+        });
+
+        ChangeSequenceService changeSequenceService = mock(ChangeSequenceService.class);
+        when(changeSequenceService.reserve(any(), anyInt()))
+                .thenAnswer(call -> (long) call.getArgument(1, Integer.class));
+
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+        importService = new TransactionImportServiceImpl(
+                mongoTemplate,
+                objectMapper,
+                mock(BalanceLedgerService.class),
+                changeSequenceService,
+                mock(DataVersionService.class),
+                mock(ApplicationEventPublisher.class),
+                100);
+    }
+
+    @Test
+    void jsonShouldRejectNonObjectRowsAndKeepReading() throws IOException {
+
+        BulkImportResult result = importService.importJson("u1", body("""
+                [
+                  {"type": "INCOME", "amount": 100},
+                  42,
+                  ["nested", {"type": "INCOME"}],
+                  null,
+                  {"type": "EXPENSE", "amount": 40, "transactionDate": "2024-03-01"}
+                ]
+                """));
+
+        assertThat(result.getReceived()).isEqualTo(5);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors())
+                .extracting(BulkImportResult.RowError::getRow)
+                .containsExactly(2, 3, 4);
+        assertThat(inserted).extracting(Transaction::getAmount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("100"), new BigDecimal("40"));
+    }
+
+    @Test
+    void csvShouldReadQuotedMultiLineDescriptions() throws IOException {
+
+        BulkImportResult result = importService.importCsv("u1", body(
+                "\uFEFFid,type,category,amount,description,counterparty,transactionDate\n"
+                        + "a1,EXPENSE,Food,12.50,\"lunch\nwith \"\"team\"\", office\",,2024-03-01\n"
+                        + "a2,BOGUS,Food,1,,,\n"
+                        + "a3,INCOME,Salary,1000,,,2024-03-02\n"));
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors())
+                .extracting(BulkImportResult.RowError::getRow)
+                .containsExactly(2);
+        assertThat(inserted.get(0).getDescription()).isEqualTo("lunch\nwith \"team\", office");
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,32 @@
+package com.man.moneybook.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CounterpartyKeysTest {
+
+    @Test
+    void shouldFoldCaseAndWhitespaceIntoOneKey() {
+        assertThat(CounterpartyKeys.normalize("  Ravi   Kumar "))
+                .isEqualTo(CounterpartyKeys.normalize("ravi kumar"))
+                .isEqualTo("ravi kumar");
+    }
+
+    @Test
+    void shouldFoldCompatibilityCharacters() {
+        // full-width letters and a non-breaking space
+        assertThat(CounterpartyKeys.normalize("Ｒａｖｉ Kumar")).isEqualTo("ravi kumar");
+    }
+
+    @Test
+    void shouldTreatBlankAsNoCounterparty() {
+        assertThat(CounterpartyKeys.normalize(null)).isNull();
+        assertThat(CounterpartyKeys.normalize("   ")).isNull();
+    }
+
+    @Test
+    void displayNameShouldKeepCaseButTidySpacing() {
+        assertThat(CounterpartyKeys.displayName("  Ravi   Kumar ")).isEqualTo("Ravi Kumar");
+    }
+}
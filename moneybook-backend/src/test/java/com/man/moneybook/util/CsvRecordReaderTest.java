@@ -0,0 +1,46 @@
+package com.man.moneybook.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void shouldKeepLineBreaksInsideQuotedFields() throws IOException {
+
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "type,description\r\nEXPENSE,\"first line\nsecond, with comma\"\nINCOME,plain\n"));
+
+        assertThat(reader.next()).containsExactly("type", "description");
+        assertThat(reader.next()).containsExactly("EXPENSE", "first line\nsecond, with comma");
+        assertThat(reader.next()).containsExactly("INCOME", "plain");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void shouldUnescapeDoubledQuotesAndKeepEmptyFields() throws IOException {
+
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\"say \"\"hi\"\"\",,\"\""));
+
+        assertThat(reader.next()).containsExactly("say \"hi\"", "", "");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void shouldSkipBlankLinesBetweenRecords() throws IOException {
+
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b\n\n\r\nc,d"));
+
+        List<String> first = reader.next();
+        List<String> second = reader.next();
+
+        assertThat(first).containsExactly("a", "b");
+        assertThat(second).containsExactly("c", "d");
+        assertThat(reader.next()).isNull();
+    }
+}
@@ -0,0 +1,56 @@
+package com.man.moneybook.util;
+
+import com.man.moneybook.dto.dashboard.DashboardSummary;
+import com.man.moneybook.enums.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MoneyAccumulatorTest {
+
+    @Test
+    void shouldSumMixedScalesExactly() {
+
+        MoneyAccumulator acc = new MoneyAccumulator()
+                .add(TransactionType.INCOME, new BigDecimal("1000"))
+                .add(TransactionType.INCOME, new BigDecimal("0.5"))
+                .add(TransactionType.INCOME, new BigDecimal("0.25"))
+                .add(TransactionType.INCOME, new BigDecimal("0.001"));
+
+        assertThat(acc.total(TransactionType.INCOME))
+                .isEqualByComparingTo("1000.751");
+    }
+
+    @Test
+    void shouldFallBackToBigDecimalOnOverflow() {
+
+        BigDecimal big = BigDecimal.valueOf(Long.MAX_VALUE / 100, 0);
+
+        MoneyAccumulator acc = new MoneyAccumulator()
+                .add(TransactionType.EXPENSE, big)
+                .add(TransactionType.EXPENSE, big)
+                .add(TransactionType.EXPENSE, new BigDecimal("1e30"));
+
+        assertThat(acc.total(TransactionType.EXPENSE))
+                .isEqualByComparingTo(big.add(big).add(new BigDecimal("1e30")));
+    }
+
+    @Test
+    void shouldBuildDashboardSummary() {
+
+        DashboardSummary summary = new MoneyAccumulator()
+                .add(TransactionType.INCOME, new BigDecimal("1000.00"))
+                .add(TransactionType.EXPENSE, new BigDecimal("400.10"))
+                .add(TransactionType.LOAN_TAKEN, new BigDecimal("500"))
+                .add(TransactionType.SETTLEMENT, new BigDecimal("200"))
+                .add(TransactionType.LOAN_GIVEN, new BigDecimal("300"))
+                .add(TransactionType.RECOVERY, new BigDecimal("100"))
+                .toSummary();
+
+        assertThat(summary.getBalance()).isEqualByComparingTo("699.90");
+        assertThat(summary.getTotalLoanTaken()).isEqualByComparingTo("300");
+        assertThat(summary.getTotalLoanGiven()).isEqualByComparingTo("200");
+    }
+}
@@ -5,11 +5,70 @@ export const getDashboardSummary = async () => {
   return res.data;
 };
 
-export const getTransactions = async () => {
-  const res = await api.get("/transactions");
+// One keyset page: { items, nextCursor }
+export const getTransactionPage = async (params = {}) => {
+  const res = await api.get("/transactions", { params });
+  return res.data;
+};
+
+// One delta page: { changed, deleted, next, hasMore }
+export const getTransactionChanges = async (since) => {
+  const res = await api.get("/transactions/changes", { params: { since, limit: 1000 } });
   return res.data;
 };
 
+// Full history for views that need it, from a local copy kept current
+// through /transactions/changes: after the first load only rows written
+// since the last visit are downloaded. The copy belongs to the token it
+// was loaded with, so another login starts fresh.
+const CACHE_KEY = "transactions-cache";
+
+const emptyCache = (token) => ({ token, since: undefined, rows: {} });
+
+const newestFirst = (a, b) =>
+  (b.transactionDate || "").localeCompare(a.transactionDate || "") ||
+  b.id.localeCompare(a.id);
+
+export const getTransactions = async () => {
+  const token = localStorage.getItem("token");
+
+  let cache = JSON.parse(localStorage.getItem(CACHE_KEY) || "null");
+  if (!cache || cache.token !== token) cache = emptyCache(token);
+
+  for (;;) {
+    let page;
+    try {
+      page = await getTransactionChanges(cache.since);
+    } catch (err) {
+      // deletions since our token may be purged: reload everything
+      if (err.response?.status === 410 && cache.since) {
+        cache = emptyCache(token);
+        continue;
+      }
+      throw err;
+    }
+
+    page.changed.forEach((tx) => {
+      cache.rows[tx.id] = tx;
+    });
+    page.deleted.forEach((id) => {
+      delete cache.rows[id];
+    });
+    cache.since = page.next ?? cache.since;
+
+    if (!page.hasMore) break;
+  }
+
+  try {
+    localStorage.setItem(CACHE_KEY, JSON.stringify(cache));
+  } catch {
+    // over quota: the next load syncs from scratch
+    localStorage.removeItem(CACHE_KEY);
+  }
+
+  return Object.values(cache.rows).sort(newestFirst);
+};
+
 export const addTransaction = async (payload) => {
   const res = await api.post("/transactions", payload);
   return res.data;
@@ -29,3 +88,48 @@ export const updateTransaction = async (id, payload) => {
   const res = await api.put(`/transactions/${id}`, payload);
   return res.data;
 };
+
+export const deleteTransaction = async (id, version) => {
+  await api.delete(`/transactions/${id}`, { params: { version } });
+};
+
+// SSE stream of summary updates. EventSource can't send the bearer
+// token, so read the stream with fetch. Resolves when the server closes
+// it (timeout); callers reconnect. Abort via the signal to stop.
+export const streamDashboardSummary = async (onSummary, signal) => {
+  const token = localStorage.getItem("token");
+  const res = await fetch(
+    `${import.meta.env.VITE_API_BASE_URL}/transactions/summary/stream`,
+    {
+      headers: {
+        Accept: "text/event-stream",
+        ...(token ? { Authorization: `Bearer ${token}` } : {}),
+      },
+      signal,
+    }
+  );
+  if (!res.ok || !res.body) {
+    throw new Error(`Summary stream failed: ${res.status}`);
+  }
+
+  const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+  let buffer = "";
+
+  for (;;) {
+    const { value, done } = await reader.read();
+    if (done) return;
+    buffer += value;
+
+    let end;
+    while ((end = buffer.indexOf("\n\n")) >= 0) {
+      const data = buffer
+        .slice(0, end)
+        .split("\n")
+        .filter((line) => line.startsWith("data:"))
+        .map((line) => line.slice(5).trimStart())
+        .join("\n");
+      buffer = buffer.slice(end + 2);
+      if (data) onSummary(JSON.parse(data));
+    }
+  }
+};
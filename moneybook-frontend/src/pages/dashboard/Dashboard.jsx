@@ -1,5 +1,9 @@
 import { useEffect, useState } from "react";
-import { getDashboardSummary, getTransactions } from "../../api/transaction.api";
+import {
+  getDashboardSummary,
+  getTransactions,
+  streamDashboardSummary,
+} from "../../api/transaction.api";
 import { Link } from "react-router-dom";
 import BalanceChart from "../../components/charts/BalanceChart";
 import ExpenseChart from "../../components/charts/ExpenseChart";
@@ -78,6 +82,31 @@ export default function Dashboard() {
     fetchData();
   }, []);
 
+  // live balance: the server pushes a fresh summary after every write
+  useEffect(() => {
+    const controller = new AbortController();
+
+    const listen = async () => {
+      while (!controller.signal.aborted) {
+        try {
+          await streamDashboardSummary((data) => {
+            setSummary({
+              balance: Number(data.balance) || 0,
+              loanTaken: Number(data.totalLoanTaken) || 0,
+              loanGiven: Number(data.totalLoanGiven) || 0,
+            });
+          }, controller.signal);
+        } catch (err) {
+          if (controller.signal.aborted) return;
+          await new Promise((resolve) => setTimeout(resolve, 5000));
+        }
+      }
+    };
+
+    listen();
+    return () => controller.abort();
+  }, []);
+
   if (loading) {
     return (
       <div className="flex items-center justify-center h-screen text-gray-500">
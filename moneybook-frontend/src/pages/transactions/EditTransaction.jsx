@@ -1,6 +1,7 @@
 import { useEffect, useState } from "react";
 import { useNavigate, useParams } from "react-router-dom";
 import {
+  deleteTransaction,
   getTransactionById,
   updateTransaction,
 } from "../../api/transaction.api";
@@ -30,13 +31,41 @@ export default function EditTransaction() {
   const handleSubmit = async (e) => {
     e.preventDefault();
 
-    await updateTransaction(id, {
-      category: form.category,
-      amount: Number(form.amount),
-      description: form.description,
-      counterparty: form.counterparty,
-      transactionDate: form.transactionDate,
-    });
+    try {
+      await updateTransaction(id, {
+        category: form.category,
+        amount: Number(form.amount),
+        description: form.description,
+        counterparty: form.counterparty,
+        transactionDate: form.transactionDate,
+        version: form.version,
+      });
+    } catch (err) {
+      // edited elsewhere since we loaded it: show the latest and let the user re-apply
+      if (err.response?.status === 409 && err.response.data?.current) {
+        setForm(err.response.data.current);
+        alert("This transaction was changed elsewhere. Review the latest values and save again.");
+        return;
+      }
+      throw err;
+    }
+
+    navigate("/transactions");
+  };
+
+  const handleDelete = async () => {
+    if (!confirm("Delete this transaction?")) return;
+
+    try {
+      await deleteTransaction(id, form.version);
+    } catch (err) {
+      if (err.response?.status === 409 && err.response.data?.current) {
+        setForm(err.response.data.current);
+        alert("This transaction was changed elsewhere. Review the latest values before deleting.");
+        return;
+      }
+      throw err;
+    }
 
     navigate("/transactions");
   };
@@ -105,6 +134,14 @@ export default function EditTransaction() {
   Cancel
 </button>
 
+          <button
+            type="button"
+            onClick={handleDelete}
+            className="flex-1 bg-red-600 text-white p-3 rounded"
+          >
+            Delete
+          </button>
+
           <button
             type="submit"
             className="flex-1 bg-blue-600 text-white p-3 rounded"